@@ -0,0 +1,152 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.util.AdaptiveConcurrencyLimit;
+import com.modernbank.api_gateway.util.ErrorBodies;
+import com.modernbank.api_gateway.util.MetricTags;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+/**
+ * Route başına eşzamanlı istek sınırı. Limit sabit değildir; {@link AdaptiveConcurrencyLimit} ile upstream'in
+ * gecikmesine göre artırılıp azaltılır. Upstream yavaşladığında istekler gateway'de birikmek yerine limit
+ * dolduğu anda 503 ve {@code BaseResponse} gövdesiyle reddedilir.
+ *
+ * <pre>
+ * default-filters:
+ *   - AdaptiveConcurrency
+ * </pre>
+ *
+ * <p>Limit route id'si başına tutulur, route'lar yenilendiğinde kaybolmaz. WebSocket bağlantıları bağlantı
+ * süresince açık kaldığından sayılmaz. Circuit breaker fallback'inin döndüğü 503 düşürülme sayılmaz; breaker açıkken
+ * dönen fallback'ler limiti hiç etkilemez. Metrikler: {@code gateway.concurrency.limit},
+ * {@code gateway.concurrency.in-flight} ve {@code gateway.concurrency.rejected} ({@code route} etiketiyle).
+ */
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+    private static final ErrorBodies.FixedBody REJECTED_BODY = ErrorBodies.fixed("ERR-503",
+            "Servis şu an yoğun olduğu için isteğiniz karşılanamadı. Lütfen daha sonra tekrar deneyiniz.");
+
+    private final Map<String, RouteLimit> limits = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final int initialLimit;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double backoffRatio;
+
+    private final double latencyTolerance;
+
+    private final Duration maxLatency;
+
+    public AdaptiveConcurrencyGatewayFilterFactory(MeterRegistry meterRegistry,
+                                                   @Value("${gateway.concurrency.initial-limit:50}") int initialLimit,
+                                                   @Value("${gateway.concurrency.min-limit:5}") int minLimit,
+                                                   @Value("${gateway.concurrency.max-limit:500}") int maxLimit,
+                                                   @Value("${gateway.concurrency.backoff-ratio:0.9}") double backoffRatio,
+                                                   @Value("${gateway.concurrency.latency-tolerance:2.0}") double latencyTolerance,
+                                                   @Value("${gateway.concurrency.max-latency:5s}") Duration maxLatency) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.maxLatency = maxLatency;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RouteLimit routeLimit = limits.computeIfAbsent(config.getRouteId(), this::newRouteLimit);
+        AdaptiveConcurrencyLimit limit = routeLimit.limit();
+
+        return (exchange, chain) -> {
+            if ("websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())) {
+                return chain.filter(exchange);
+            }
+
+            int inFlightAtStart = limit.tryAcquire();
+            if (inFlightAtStart < 0) {
+                routeLimit.rejected().increment();
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return ErrorBodies.write(exchange, HttpStatus.SERVICE_UNAVAILABLE, REJECTED_BODY);
+            }
+
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        Throwable fallbackCause = exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+                        if (signal == SignalType.CANCEL || fallbackCause instanceof CallNotPermittedException) {
+                            // Açık breaker upstream'e gitmeden fallback döndü; gecikme upstream hakkında bilgi vermez
+                            limit.releaseWithoutSample();
+                        } else {
+                            // Fallback'in kendi 503'ü düşürülme sayılmaz; upstream'in zaman aşımı gecikmeden görülür
+                            boolean dropped = signal == SignalType.ON_ERROR
+                                    || (fallbackCause == null && isOverloaded(exchange.getResponse().getStatusCode()));
+                            limit.release(System.nanoTime() - start, dropped, inFlightAtStart);
+                        }
+                    });
+        };
+    }
+
+    /**
+     * 502 / 503 / 504: upstream'e ulaşılamadı, aşırı yüklü ya da zaman aşımı. Diğer 5xx'ler iş hatası sayılır.
+     */
+    private static boolean isOverloaded(HttpStatusCode status) {
+        return status != null && (status.value() == 502 || status.value() == 503 || status.value() == 504);
+    }
+
+    private RouteLimit newRouteLimit(String routeId) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit,
+                backoffRatio, latencyTolerance, maxLatency.toNanos());
+
+        Gauge.builder("gateway.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag(MetricTags.ROUTE, routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests currently counted against the concurrency limit")
+                .tag(MetricTags.ROUTE, routeId)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("gateway.concurrency.rejected")
+                .description("Requests rejected because the concurrency limit was reached")
+                .tag(MetricTags.ROUTE, routeId)
+                .register(meterRegistry);
+        return new RouteLimit(limit, rejected);
+    }
+
+    private record RouteLimit(AdaptiveConcurrencyLimit limit, Counter rejected) {
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+    }
+}
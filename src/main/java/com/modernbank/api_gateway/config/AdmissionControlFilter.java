@@ -0,0 +1,164 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.config.AdmissionControlProperties.Priority;
+import com.modernbank.api_gateway.service.EventLoopLagProbe;
+import com.modernbank.api_gateway.util.ErrorBodies;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routing ve security'den önce, gateway doygunluktayken düşük öncelikli istekleri reddeder. Her istek path'ine
+ * göre bir öncelik sınıfına ({@link Priority}) atanır ve iki sinyale bakılır:
+ *
+ * <ul>
+ *     <li>In-flight sayısı: {@code max-in-flight}'ın {@code critical-reserved-share} kadarı sadece CRITICAL
+ *     isteklere ayrılır. NORMAL istekler kalan kapasiteyi, LOW istekler bunun {@code low-priority-share}
+ *     kadarını kullanabilir; böylece kapasite dolarken önce LOW istekler reddedilir.</li>
+ *     <li>Event loop gecikmesi ({@link EventLoopLagProbe}): {@code lag-threshold}'u aşınca LOW, iki katını
+ *     aşınca NORMAL istekler de reddedilir. CRITICAL istekler gecikme yüzünden reddedilmez.</li>
+ * </ul>
+ *
+ * <p>Reddedilen istek token doğrulamasına ya da upstream'e gitmez; önceden kodlanmış bir 503 {@code BaseResponse}
+ * gövdesiyle cevaplanır. WebSocket bağlantıları bağlantı süresince açık kaldığından in-flight'a sayılmaz.
+ */
+@Component
+public class AdmissionControlFilter implements WebFilter, Ordered {
+
+    private static final ErrorBodies.FixedBody REJECTED_BODY = ErrorBodies.fixed("ERR-503",
+            "Sistem yoğunluğu nedeniyle isteğiniz şu an karşılanamıyor. Lütfen daha sonra tekrar deneyiniz.");
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final EventLoopLagProbe lagProbe;
+
+    private final boolean enabled;
+
+    private final int maxInFlight;
+
+    private final int lowPriorityLimit;
+
+    private final int normalPriorityLimit;
+
+    private final long lagThresholdNanos;
+
+    private final Priority defaultPriority;
+
+    /** En uzun prefix önce */
+    private final List<PathPriority> pathPriorities = new ArrayList<>();
+
+    private final Map<Priority, Counter> inFlightRejections = new EnumMap<>(Priority.class);
+
+    private final Map<Priority, Counter> lagRejections = new EnumMap<>(Priority.class);
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, EventLoopLagProbe lagProbe,
+                                  MeterRegistry meterRegistry) {
+        this.lagProbe = lagProbe;
+        this.enabled = properties.isEnabled();
+        this.maxInFlight = properties.getMaxInFlight();
+        this.normalPriorityLimit = (int) (maxInFlight * (1 - properties.getCriticalReservedShare()));
+        this.lowPriorityLimit = (int) (normalPriorityLimit * properties.getLowPriorityShare());
+        this.lagThresholdNanos = properties.getLagThreshold().toNanos();
+        this.defaultPriority = properties.getDefaultPriority();
+
+        properties.getPriorities().forEach((priority, paths) -> paths.forEach(path -> pathPriorities.add(
+                new PathPriority(path.endsWith("/") ? path.substring(0, path.length() - 1) : path, priority))));
+        pathPriorities.sort(Comparator.comparingInt((PathPriority p) -> p.prefix().length()).reversed());
+
+        for (Priority priority : Priority.values()) {
+            inFlightRejections.put(priority, rejectionCounter(meterRegistry, priority, "in-flight"));
+            lagRejections.put(priority, rejectionCounter(meterRegistry, priority, "event-loop-lag"));
+        }
+        Gauge.builder("gateway.admission.in-flight", inFlight, AtomicInteger::get)
+                .description("Requests currently admitted by the admission controller")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        Priority priority = priority(exchange.getRequest().getURI().getPath());
+        if (isLagging(priority)) {
+            return reject(exchange, lagRejections.get(priority));
+        }
+        if ("websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())) {
+            return chain.filter(exchange);
+        }
+
+        int current = inFlight.incrementAndGet();
+        if (current > limit(priority)) {
+            inFlight.decrementAndGet();
+            return reject(exchange, inFlightRejections.get(priority));
+        }
+        return chain.filter(exchange).doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    Priority priority(String path) {
+        for (PathPriority pathPriority : pathPriorities) {
+            String prefix = pathPriority.prefix();
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return pathPriority.priority();
+            }
+        }
+        return defaultPriority;
+    }
+
+    private boolean isLagging(Priority priority) {
+        return switch (priority) {
+            case CRITICAL -> false;
+            case NORMAL -> lagProbe.lagNanos() > 2 * lagThresholdNanos;
+            case LOW -> lagProbe.lagNanos() > lagThresholdNanos;
+        };
+    }
+
+    private int limit(Priority priority) {
+        return switch (priority) {
+            case CRITICAL -> maxInFlight;
+            case NORMAL -> normalPriorityLimit;
+            case LOW -> lowPriorityLimit;
+        };
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, Counter counter) {
+        counter.increment();
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return ErrorBodies.write(exchange, HttpStatus.SERVICE_UNAVAILABLE, REJECTED_BODY);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, Priority priority, String reason) {
+        return Counter.builder("gateway.admission.rejected")
+                .description("Requests shed by the admission controller")
+                .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        // LatencyMetricsFilter ve ResponseCompressionFilter'dan sonra (reddedilenler de ölçülsün),
+        // security WebFilterChainProxy'den (-100) önce
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+
+    private record PathPriority(String prefix, Priority priority) {
+    }
+}
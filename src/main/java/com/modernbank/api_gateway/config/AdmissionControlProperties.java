@@ -0,0 +1,54 @@
+package com.modernbank.api_gateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gateway doygunluğa ulaştığında hangi isteklerin önce reddedileceğini belirleyen öncelik sınıfları ve eşikler.
+ * Path'ler segment sınırında prefix olarak eşleşir; en uzun eşleşme kazanır, hiçbiri eşleşmezse
+ * {@code default-priority} kullanılır.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.admission")
+public class AdmissionControlProperties {
+
+    public enum Priority {
+        CRITICAL,
+        NORMAL,
+        LOW
+    }
+
+    private boolean enabled = true;
+
+    /** Gateway genelinde aynı anda işlenen istek üst sınırı */
+    private int maxInFlight = 2000;
+
+    /** {@code max-in-flight}'ın sadece CRITICAL isteklere ayrılan payı */
+    private double criticalReservedShare = 0.2;
+
+    /** CRITICAL olmayan kapasitenin LOW isteklerin kullanabileceği payı */
+    private double lowPriorityShare = 0.6;
+
+    /** Event loop gecikmesi bunu aşınca LOW, iki katını aşınca NORMAL istekler reddedilir */
+    private Duration lagThreshold = Duration.ofMillis(100);
+
+    private Duration probeInterval = Duration.ofMillis(100);
+
+    private Priority defaultPriority = Priority.NORMAL;
+
+    /** Öncelik → path prefix'leri */
+    private Map<Priority, List<String>> priorities = new LinkedHashMap<>(Map.of(
+            Priority.CRITICAL, new ArrayList<>(List.of("/transaction", "/authentication")),
+            Priority.LOW, new ArrayList<>(List.of("/atm", "/mcpserver"))
+    ));
+}
@@ -0,0 +1,66 @@
+package com.modernbank.api_gateway.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Authentication servisine yapılan doğrulama çağrıları için tek, tekrar kullanılan WebClient.
+ * Kendi isimli connection pool'u vardır; pool metrikleri
+ * {@code reactor.netty.connection.provider.*{name=authentication-service}} olarak Micrometer'a yayınlanır.
+ */
+@Configuration
+public class AuthServiceClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider authServiceConnectionProvider(
+            @Value("${client.webclient.authentication-service.max-connections:200}") int maxConnections,
+            @Value("${client.webclient.authentication-service.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${client.webclient.authentication-service.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${client.webclient.authentication-service.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${client.webclient.authentication-service.max-life-time:5m}") Duration maxLifeTime,
+            @Value("${client.webclient.authentication-service.evict-interval:30s}") Duration evictInterval) {
+        return ConnectionProvider.builder("authentication-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInterval)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient authServiceWebClient(
+            WebClient.Builder webClientBuilder,
+            ConnectionProvider authServiceConnectionProvider,
+            @Value("${client.feign.authentication-service.url}") String authServiceUrl,
+            @Value("${client.webclient.authentication-service.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${client.webclient.authentication-service.response-timeout:3s}") Duration responseTimeout,
+            @Value("${client.webclient.authentication-service.http2:false}") boolean http2,
+            @Value("${client.webclient.authentication-service.max-in-memory-size:64KB}") DataSize maxInMemorySize) {
+        HttpClient httpClient = HttpClient.create(authServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .keepAlive(true)
+                .responseTimeout(responseTimeout)
+                .protocol(http2
+                        ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.H2C, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11});
+
+        return webClientBuilder
+                .baseUrl(authServiceUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes()))
+                .build();
+    }
+}
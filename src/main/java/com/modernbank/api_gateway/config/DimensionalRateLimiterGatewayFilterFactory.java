@@ -0,0 +1,178 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.service.RateLimitKeys;
+import com.modernbank.api_gateway.service.RateLimitKeys.Dimension;
+import com.modernbank.api_gateway.util.MetricTags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setResponseStatus;
+
+/**
+ * Bir route'a {@code gateway.rate-limiter.limits.<routeId>} altında tanımlanan her limiti kendi boyut anahtarıyla
+ * ayrı bir bucket'ta uygular. Örneğin login akışı IP başına cömert, token başına sıkı ve route geneli bir üst sınırla
+ * korunabilir; aynı ofis IP'sini paylaşan kullanıcılar tek bir sıkı bucket'a düşmez.
+ *
+ * <pre>
+ * filters:
+ *   - name: DimensionalRateLimiter
+ *     args:
+ *       rate-limiter: "#{@redisRateLimiter}"
+ * </pre>
+ *
+ * <p>Limitler sırayla değerlendirilir ve ilk reddedende durulur. Boyutu bu istek için çözümlenemeyen limit
+ * (ör. public path'te {@code user}) atlanır. Cevaba, reddeden ya da en az token'ı kalan limitin
+ * {@code X-RateLimit-*} header'ları eklenir. Seçilen RateLimiter'ın her limit için ayrı bir config'i
+ * {@code <routeId>#<boyutlar>} id'siyle kaydedilir, bu yüzden Redis, local ve leased limiter'ların hepsiyle çalışır.
+ */
+@Component
+public class DimensionalRateLimiterGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<DimensionalRateLimiterGatewayFilterFactory.Config> {
+
+    private final RateLimiter<?> defaultRateLimiter;
+
+    private final RateLimitKeys rateLimitKeys;
+
+    private final RateLimitProperties properties;
+
+    private final ConfigurationService configurationService;
+
+    private final MeterRegistry meterRegistry;
+
+    public DimensionalRateLimiterGatewayFilterFactory(RateLimiter<?> defaultRateLimiter,
+                                                      RateLimitKeys rateLimitKeys,
+                                                      RateLimitProperties properties,
+                                                      ConfigurationService configurationService,
+                                                      MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.defaultRateLimiter = defaultRateLimiter;
+        this.rateLimitKeys = rateLimitKeys;
+        this.properties = properties;
+        this.configurationService = configurationService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RateLimiter<?> rateLimiter = config.getRateLimiter() != null ? config.getRateLimiter() : defaultRateLimiter;
+        List<BoundLimit> limits = properties.getLimits().getOrDefault(config.getRouteId(), List.of()).stream()
+                .map(limit -> bind(rateLimiter, config.getRouteId(), limit))
+                .toList();
+
+        return (exchange, chain) -> Flux.fromIterable(limits)
+                .concatMap(limit -> rateLimitKeys.resolve(exchange, limit.dimensions())
+                        .flatMap(key -> rateLimiter.isAllowed(limit.id(), limit.id() + '|' + key))
+                        .map(response -> new Decision(limit, response)))
+                .takeUntil(decision -> !decision.response().isAllowed())
+                .collectList()
+                .flatMap(decisions -> {
+                    Decision decisive = decisive(decisions);
+                    if (decisive == null) {
+                        return chain.filter(exchange);
+                    }
+
+                    decisive.response().getHeaders().forEach((name, value) -> exchange.getResponse().getHeaders().add(name, value));
+                    if (decisive.response().isAllowed()) {
+                        return chain.filter(exchange);
+                    }
+
+                    decisive.limit().denied().increment();
+                    setResponseStatus(exchange, config.getStatusCode());
+                    return exchange.getResponse().setComplete();
+                });
+    }
+
+    /**
+     * Reddeden limit varsa o, yoksa en az token'ı kalan limit.
+     */
+    private static Decision decisive(List<Decision> decisions) {
+        if (decisions.isEmpty()) {
+            return null;
+        }
+        Decision last = decisions.get(decisions.size() - 1);
+        if (!last.response().isAllowed()) {
+            return last;
+        }
+
+        Decision tightest = null;
+        long tightestRemaining = Long.MAX_VALUE;
+        for (Decision decision : decisions) {
+            long remaining = remaining(decision.response());
+            if (tightest == null || remaining < tightestRemaining) {
+                tightest = decision;
+                tightestRemaining = remaining;
+            }
+        }
+        return tightest;
+    }
+
+    private static long remaining(RateLimiter.Response response) {
+        String value = response.getHeaders().get(RedisRateLimiter.REMAINING_HEADER);
+        try {
+            return value != null ? Long.parseLong(value) : Long.MAX_VALUE;
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private <C> BoundLimit bind(RateLimiter<C> rateLimiter, String routeId, RateLimitProperties.Limit limit) {
+        if (limit.getDimensions().isEmpty()) {
+            throw new IllegalArgumentException("Rate limit for route " + routeId + " has no dimensions");
+        }
+
+        String dimensions = limit.getDimensions().stream()
+                .map(dimension -> dimension.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining("+"));
+        String id = routeId + "#" + dimensions;
+
+        C limiterConfig = rateLimiter.newConfig();
+        configurationService.with(limiterConfig)
+                .name("limit")
+                .normalizedProperties(Map.of(
+                        "limit.replenishRate", limit.getReplenishRate(),
+                        "limit.burstCapacity", limit.getBurstCapacity(),
+                        "limit.requestedTokens", limit.getRequestedTokens()))
+                .bind();
+        rateLimiter.getConfig().put(id, limiterConfig);
+
+        Counter denied = Counter.builder("gateway.rate-limiter.denied")
+                .description("Requests rejected by a per-dimension rate limit")
+                .tag(MetricTags.ROUTE, routeId)
+                .tag("dimensions", dimensions)
+                .register(meterRegistry);
+        return new BoundLimit(id, limit.getDimensions(), denied);
+    }
+
+    private record BoundLimit(String id, List<Dimension> dimensions, Counter denied) {
+    }
+
+    private record Decision(BoundLimit limit, RateLimiter.Response response) {
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private RateLimiter<?> rateLimiter;
+
+        private HttpStatus statusCode = HttpStatus.TOO_MANY_REQUESTS;
+
+        private String routeId;
+    }
+}
@@ -1,11 +1,12 @@
 package com.modernbank.api_gateway.config;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.modernbank.api_gateway.api.response.BaseResponse;
 import com.modernbank.api_gateway.api.response.TestResponse;
 import com.modernbank.api_gateway.exception.RemoteServiceException;
+import com.modernbank.api_gateway.util.ErrorBodies;
+import com.modernbank.api_gateway.util.MetricTags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bouncycastle.jce.provider.AnnotatedException;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -22,18 +23,28 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class GatewayErrorFilter implements GlobalFilter, Ordered {
 
-    private final ObjectMapper objectMapper = new ObjectMapper()
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-            .configure(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT, true)
-            .configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
+    private static final String UNEXPECTED_MESSAGE = "Beklenmeyen bir hata oluştu. Lütfen daha sonra tekrar deneyiniz.";
+
+    private static final String UPSTREAM_MESSAGE = "Bağlantı sağlanamıyor. Lütfen daha sonra tekrar deneyiniz.";
+
+    private static final String SERVER_MESSAGE = "Sunucu hatası, lütfen daha sonra tekrar deneyiniz.";
+
+    // Mesajı sabit olan gövdeler açılışta bir kez kodlanır; upstream / exception mesajı içerenler istek başına kodlanır
+    private static final ErrorBodies.FixedBody UNEXPECTED_BODY = ErrorBodies.fixed("ERR-UNEXPECTED", UNEXPECTED_MESSAGE);
+
+    private static final ErrorBodies.FixedBody UPSTREAM_BODY = ErrorBodies.fixed("ERR-UPSTREAM", UPSTREAM_MESSAGE);
+
+    private static final ErrorBodies.FixedBody SERVER_BODY = ErrorBodies.fixed("ERR-SERVER", SERVER_MESSAGE);
+
+    private final MeterRegistry meterRegistry;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -47,7 +58,8 @@ public class GatewayErrorFilter implements GlobalFilter, Ordered {
 
         HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
         String processCode = "ERR-UNEXPECTED";
-        String processMessage = "Beklenmeyen bir hata oluştu. Lütfen daha sonra tekrar deneyiniz.";
+        String processMessage = UNEXPECTED_MESSAGE;
+        ErrorBodies.FixedBody body = UNEXPECTED_BODY;
 
         try {
             // 🔹 Yetkilendirme hatası (ör. Token geçersiz)
@@ -55,13 +67,15 @@ public class GatewayErrorFilter implements GlobalFilter, Ordered {
                 status = rse.getStatus() != null ? rse.getStatus() : HttpStatus.UNAUTHORIZED;
                 processCode = rse.getErrorCode() != null ? rse.getErrorCode() : "AUTH-001";
                 processMessage = rse.getMessage() != null ? rse.getMessage() : "Yetkilendirme hatası.";
+                body = null;
             }
 
             // 🔹 Mikroservise erişilemiyor (ör. servis down)
             else if (throwable instanceof WebClientRequestException) {
                 status = HttpStatus.BAD_GATEWAY;
                 processCode = "ERR-UPSTREAM";
-                processMessage = "Bağlantı sağlanamıyor. Lütfen daha sonra tekrar deneyiniz.";
+                processMessage = UPSTREAM_MESSAGE;
+                body = UPSTREAM_BODY;
             }
 
             // 🔹 Spesifik durumlar (ör. 404, 403)
@@ -69,6 +83,7 @@ public class GatewayErrorFilter implements GlobalFilter, Ordered {
                 status = (HttpStatus) rse.getStatusCode();
                 processCode = "ERR-" + status.value();
                 processMessage = rse.getReason() != null ? rse.getReason() : mapStatusToMessage(status);
+                body = null;
             }
 
             // 🔹 NullPointer, IllegalState vb. framework hataları
@@ -76,6 +91,7 @@ public class GatewayErrorFilter implements GlobalFilter, Ordered {
                 log.error("Gateway Error [path={}]: {}", exchange.getRequest().getPath(), throwable.toString(), throwable);
                 processCode = mapStatusToProcessCode(status);
                 processMessage = mapStatusToMessage(status);
+                body = SERVER_BODY;
             }
 
         } catch (Exception e) {
@@ -84,23 +100,18 @@ public class GatewayErrorFilter implements GlobalFilter, Ordered {
 
         response.setStatusCode(status);
 
-        // 🔹 BaseResponse kullanarak tek tip yanıt oluştur
-        BaseResponse baseResponse = BaseResponse.builder()
-                .status("FAILED")
-                .processCode(processCode)
-                .processMessage(processMessage)
-
-                .build();
-
-        byte[] bytes;
-        try {
-            bytes = objectMapper.writeValueAsBytes(baseResponse);
-        } catch (JsonProcessingException e) {
-            bytes = "{\"status\":\"FAILED\",\"processCode\":\"ERR-SERIALIZE\",\"processMessage\":\"Yanıt serileştirilirken hata oluştu.\"}"
-                    .getBytes(StandardCharsets.UTF_8);
-        }
-
-        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        Counter.builder("gateway.errors")
+                .description("Errors converted into a FAILED response by the gateway")
+                .tag("processCode", processCode)
+                .tag(MetricTags.STATUS, MetricTags.statusClass(exchange))
+                .tag(MetricTags.ROUTE, MetricTags.route(exchange))
+                .register(meterRegistry)
+                .increment();
+
+        // 🔹 BaseResponse formatında tek tip yanıt; sabit gövdeler önceden kodlanmış ve sıkıştırılmıştır
+        return body != null
+                ? ErrorBodies.write(exchange, status, body)
+                : ErrorBodies.write(exchange, status, ErrorBodies.baseResponse(processCode, processMessage));
     }
 
     private String mapStatusToProcessCode(HttpStatus status) {
@@ -115,7 +126,7 @@ public class GatewayErrorFilter implements GlobalFilter, Ordered {
             case FORBIDDEN -> "Erişim reddedildi.";
             case NOT_FOUND -> "İstenen kaynak bulunamadı.";
             default -> status.is5xxServerError()
-                    ? "Sunucu hatası, lütfen daha sonra tekrar deneyiniz."
+                    ? SERVER_MESSAGE
                     : "Bir hata oluştu.";
         };
     }
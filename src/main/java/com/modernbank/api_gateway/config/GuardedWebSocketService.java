@@ -0,0 +1,352 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.service.AuthenticatedUser;
+import com.modernbank.api_gateway.service.ClientIpResolver;
+import com.modernbank.api_gateway.util.ErrorBodies;
+import com.modernbank.api_gateway.util.MetricTags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.HandshakeInfo;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.reactive.socket.server.RequestUpgradeStrategy;
+import org.springframework.web.reactive.socket.server.WebSocketService;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.AUTHENTICATED_USER;
+
+/**
+ * {@code WebsocketRoutingFilter}'ın kullandığı {@link WebSocketService}. Handshake'i
+ * {@link HandshakeWebSocketService}'e bırakır, etrafına node başına bağlantı sınırları ve istemci tarafındaki
+ * oturumun ölçümünü ekler:
+ *
+ * <ul>
+ *     <li>Toplam açık bağlantı {@code max-connections}'ı aşarsa 503, aynı kullanıcının bağlantıları
+ *     {@code max-connections-per-user}'ı aşarsa 429 ile handshake yapılmadan reddedilir.</li>
+ *     <li>İstemciye {@code ping-interval} aralıkla ping gönderilir. İstemciden {@code idle-timeout} boyunca hiçbir
+ *     frame (pong dahil) gelmezse bağlantı kapatılır; ölü soketler node'da birikmez. Pong'lar upstream'e iletilmez.</li>
+ *     <li>Yavaş istemciye giden mesajlar en fazla {@code outbound-buffer-size} kadar bekletilir, sonra en eskisi
+ *     düşürülür; upstream bağlantısı yavaş istemci yüzünden durmaz.</li>
+ * </ul>
+ *
+ * <p>Metrikler: {@code gateway.websocket.connections}, {@code gateway.websocket.messages{route,direction}},
+ * {@code gateway.websocket.dropped{route}}, {@code gateway.websocket.idle-closed{route}} ve
+ * {@code gateway.websocket.rejected{reason}}.
+ */
+@Primary
+@Component
+public class GuardedWebSocketService implements WebSocketService {
+
+    private static final byte[] PING_PAYLOAD = "gateway".getBytes(StandardCharsets.US_ASCII);
+
+    private static final CloseStatus IDLE_CLOSE = CloseStatus.GOING_AWAY.withReason("idle timeout");
+
+    private static final ErrorBodies.FixedBody GLOBAL_LIMIT_BODY = ErrorBodies.fixed("ERR-503",
+            "Şu an yeni bağlantı kabul edilemiyor. Lütfen daha sonra tekrar deneyiniz.");
+
+    private static final ErrorBodies.FixedBody USER_LIMIT_BODY = ErrorBodies.fixed("ERR-429",
+            "Açık bağlantı sayısı sınırına ulaşıldı.");
+
+    private final WebSocketService delegate;
+
+    private final ClientIpResolver clientIpResolver;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maxConnections;
+
+    private final int maxConnectionsPerUser;
+
+    private final Duration idleTimeout;
+
+    private final Duration pingInterval;
+
+    private final int outboundBufferSize;
+
+    private final AtomicInteger open = new AtomicInteger();
+
+    /** Kullanıcı (ya da IP) → açık bağlantı sayısı; sıfıra inen kayıt silinir */
+    private final Map<String, Integer> openPerUser = new ConcurrentHashMap<>();
+
+    private final Map<String, RouteMeters> routeMeters = new ConcurrentHashMap<>();
+
+    private final Counter globalRejections;
+
+    private final Counter userRejections;
+
+    public GuardedWebSocketService(RequestUpgradeStrategy upgradeStrategy, WebSocketProperties properties,
+                                   ClientIpResolver clientIpResolver, MeterRegistry meterRegistry) {
+        this.delegate = new HandshakeWebSocketService(upgradeStrategy);
+        this.clientIpResolver = clientIpResolver;
+        this.meterRegistry = meterRegistry;
+        this.maxConnections = properties.getMaxConnections();
+        this.maxConnectionsPerUser = properties.getMaxConnectionsPerUser();
+        this.idleTimeout = properties.getIdleTimeout();
+        this.pingInterval = properties.getPingInterval();
+        this.outboundBufferSize = properties.getOutboundBufferSize();
+
+        Gauge.builder("gateway.websocket.connections", open, AtomicInteger::get)
+                .description("WebSocket connections currently open on this node")
+                .register(meterRegistry);
+        this.globalRejections = rejectionCounter("global");
+        this.userRejections = rejectionCounter("user");
+    }
+
+    @Override
+    public Mono<Void> handleRequest(ServerWebExchange exchange, WebSocketHandler handler) {
+        if (open.incrementAndGet() > maxConnections) {
+            open.decrementAndGet();
+            globalRejections.increment();
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return ErrorBodies.write(exchange, HttpStatus.SERVICE_UNAVAILABLE, GLOBAL_LIMIT_BODY);
+        }
+
+        String user = userKey(exchange);
+        if (!acquireForUser(user)) {
+            open.decrementAndGet();
+            userRejections.increment();
+            return ErrorBodies.write(exchange, HttpStatus.TOO_MANY_REQUESTS, USER_LIMIT_BODY);
+        }
+
+        Lease lease = new Lease(user);
+        RouteMeters meters = routeMeters.computeIfAbsent(MetricTags.route(exchange), this::newRouteMeters);
+        return delegate.handleRequest(exchange, new GuardedHandler(handler, lease, meters))
+                // Handshake başarısız olduysa oturum hiç açılmaz; açıldıysa sınır oturum kapanınca bırakılır
+                .doFinally(signal -> {
+                    if (!lease.sessionStarted) {
+                        lease.release();
+                    }
+                });
+    }
+
+    private String userKey(ServerWebExchange exchange) {
+        AuthenticatedUser user = exchange.getAttribute(AUTHENTICATED_USER);
+        if (user != null) {
+            return "user:" + user.getUserInfo().getId();
+        }
+        return "ip:" + clientIpResolver.resolve(exchange.getRequest());
+    }
+
+    private boolean acquireForUser(String user) {
+        boolean[] acquired = {false};
+        openPerUser.compute(user, (key, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= maxConnectionsPerUser) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    private Counter rejectionCounter(String reason) {
+        return Counter.builder("gateway.websocket.rejected")
+                .description("WebSocket handshakes rejected by the connection limits")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private RouteMeters newRouteMeters(String route) {
+        return new RouteMeters(
+                messageCounter(route, "inbound"),
+                messageCounter(route, "outbound"),
+                Counter.builder("gateway.websocket.dropped")
+                        .description("Messages to slow WebSocket clients dropped because the outbound buffer was full")
+                        .tag(MetricTags.ROUTE, route)
+                        .register(meterRegistry),
+                Counter.builder("gateway.websocket.idle-closed")
+                        .description("WebSocket connections closed because the client stopped answering")
+                        .tag(MetricTags.ROUTE, route)
+                        .register(meterRegistry));
+    }
+
+    private Counter messageCounter(String route, String direction) {
+        return Counter.builder("gateway.websocket.messages")
+                .description("WebSocket messages proxied between clients and upstreams")
+                .tag(MetricTags.ROUTE, route)
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    private record RouteMeters(Counter inbound, Counter outbound, Counter dropped, Counter idleClosed) {
+    }
+
+    /** Bir bağlantının tuttuğu sınır payı; bir kez bırakılır */
+    private class Lease {
+
+        private final String user;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private volatile boolean sessionStarted;
+
+        Lease(String user) {
+            this.user = user;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                openPerUser.computeIfPresent(user, (key, count) -> count > 1 ? count - 1 : null);
+                open.decrementAndGet();
+            }
+        }
+    }
+
+    private class GuardedHandler implements WebSocketHandler {
+
+        private final WebSocketHandler handler;
+
+        private final Lease lease;
+
+        private final RouteMeters meters;
+
+        GuardedHandler(WebSocketHandler handler, Lease lease, RouteMeters meters) {
+            this.handler = handler;
+            this.lease = lease;
+            this.meters = meters;
+        }
+
+        @Override
+        public List<String> getSubProtocols() {
+            return handler.getSubProtocols();
+        }
+
+        @Override
+        public Mono<Void> handle(WebSocketSession session) {
+            lease.sessionStarted = true;
+            return handler.handle(new GuardedSession(session, meters))
+                    .doFinally(signal -> lease.release());
+        }
+    }
+
+    /**
+     * İstemci tarafındaki oturum: {@link #receive()} istemciden gelenleri, {@link #send} istemciye gidenleri taşır.
+     */
+    private class GuardedSession implements WebSocketSession {
+
+        private final WebSocketSession session;
+
+        private final RouteMeters meters;
+
+        GuardedSession(WebSocketSession session, RouteMeters meters) {
+            this.session = session;
+            this.meters = meters;
+        }
+
+        @Override
+        public Flux<WebSocketMessage> receive() {
+            Flux<WebSocketMessage> inbound = session.receive();
+            if (idleTimeout.toNanos() > 0) {
+                inbound = inbound.timeout(idleTimeout, Flux.defer(() -> {
+                    meters.idleClosed().increment();
+                    return session.close(IDLE_CLOSE).thenMany(Flux.empty());
+                }));
+            }
+            // Pong sadece canlılık sinyalidir, upstream'e gitmez
+            return inbound
+                    .filter(message -> message.getType() != WebSocketMessage.Type.PONG)
+                    .doOnNext(message -> meters.inbound().increment());
+        }
+
+        @Override
+        public Mono<Void> send(Publisher<WebSocketMessage> messages) {
+            Flux<WebSocketMessage> outbound = Flux.from(messages)
+                    .onBackpressureBuffer(outboundBufferSize, dropped -> {
+                        meters.dropped().increment();
+                        DataBufferUtils.release(dropped.getPayload());
+                    }, BufferOverflowStrategy.DROP_OLDEST)
+                    .doOnNext(message -> meters.outbound().increment());
+            if (pingInterval.toNanos() <= 0) {
+                return session.send(outbound);
+            }
+
+            // Ping'ler mesaj akışı bitince durur, böylece upstream kapandığında gönderim de tamamlanır
+            Sinks.Empty<Void> done = Sinks.empty();
+            Flux<WebSocketMessage> pings = Flux.interval(pingInterval)
+                    .map(tick -> session.pingMessage(factory -> factory.wrap(PING_PAYLOAD)))
+                    .takeUntilOther(done.asMono());
+            return session.send(Flux.merge(outbound.doFinally(signal -> done.tryEmitEmpty()), pings));
+        }
+
+        @Override
+        public String getId() {
+            return session.getId();
+        }
+
+        @Override
+        public HandshakeInfo getHandshakeInfo() {
+            return session.getHandshakeInfo();
+        }
+
+        @Override
+        public DataBufferFactory bufferFactory() {
+            return session.bufferFactory();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return session.getAttributes();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return session.isOpen();
+        }
+
+        @Override
+        public Mono<Void> close(CloseStatus status) {
+            return session.close(status);
+        }
+
+        @Override
+        public Mono<CloseStatus> closeStatus() {
+            return session.closeStatus();
+        }
+
+        @Override
+        public WebSocketMessage textMessage(String payload) {
+            return session.textMessage(payload);
+        }
+
+        @Override
+        public WebSocketMessage binaryMessage(Function<DataBufferFactory, DataBuffer> payloadFactory) {
+            return session.binaryMessage(payloadFactory);
+        }
+
+        @Override
+        public WebSocketMessage pingMessage(Function<DataBufferFactory, DataBuffer> payloadFactory) {
+            return session.pingMessage(payloadFactory);
+        }
+
+        @Override
+        public WebSocketMessage pongMessage(Function<DataBufferFactory, DataBuffer> payloadFactory) {
+            return session.pongMessage(payloadFactory);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.util.LatencyPercentile;
+import com.modernbank.api_gateway.util.MetricTags;
+import com.modernbank.api_gateway.util.RetryBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.timeout.ReadTimeoutException;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * Okuma (GET) isteklerinde yavaş bir upstream instance'ının kuyruk gecikmesini kısaltır. İstek gateway'in
+ * {@link HttpClient}'ı ile upstream'e gönderilir; route'un son gecikmelerinin {@code percentile} yüzdeliği
+ * kadar sürede cevap gelmezse aynı istek bir kez daha (hedge) gönderilir. Önce gelen cevap yazılır, diğer
+ * istek iptal edilir ve bağlantısı kapatılır. İlk istek bağlantı hatası ya da zaman aşımıyla biterse ek istek
+ * beklemeden gönderilir (retry).
+ *
+ * <pre>
+ * filters:
+ *   - Hedging
+ * </pre>
+ *
+ * <p>Ek istekler route başına bir {@link RetryBudget} ile normal trafiğin {@code budget-ratio} oranıyla
+ * sınırlıdır; upstream çöktüğünde yükü katlamazlar. Yüzdelik {@code min-samples} örnek birikene kadar
+ * hesaplanmaz, bu sürede sadece retry yapılır. Cevap gövdesi upstream'den tamamen okunduktan sonra yazılır,
+ * bu yüzden filtre sadece küçük JSON cevapları dönen route'larda kullanılmalıdır.
+ *
+ * <p>Filtre {@link NettyRoutingFilter}'ın hemen önünde çalışır ve isteği routed olarak işaretler.
+ * Metrikler: {@code gateway.hedging.requests}, {@code gateway.hedging.sent}, {@code gateway.hedging.wins},
+ * {@code gateway.hedging.budget-exhausted} ve {@code gateway.hedging.delay} ({@code route} etiketiyle).
+ */
+@Component
+public class HedgingGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgingGatewayFilterFactory.Config> {
+
+    /** {@link NettyRoutingFilter}'ın hemen önü; UpstreamTimingFilter bundan da önce çalışır */
+    static final int ORDER = NettyRoutingFilter.ORDER - 1;
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final Map<String, RouteHedging> routes = new ConcurrentHashMap<>();
+
+    private final HttpClient httpClient;
+
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+
+    private final HttpClientProperties httpClientProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private volatile List<HttpHeadersFilter> headersFilters;
+
+    @Value("${gateway.hedging.percentile:0.95}")
+    private double percentile;
+
+    @Value("${gateway.hedging.min-delay:20ms}")
+    private Duration minDelay;
+
+    @Value("${gateway.hedging.window-size:512}")
+    private int windowSize;
+
+    @Value("${gateway.hedging.min-samples:50}")
+    private int minSamples;
+
+    @Value("${gateway.hedging.budget-ratio:0.1}")
+    private double budgetRatio;
+
+    @Value("${gateway.hedging.budget-max-tokens:10}")
+    private double budgetMaxTokens;
+
+    public HedgingGatewayFilterFactory(HttpClient httpClient,
+                                       ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                       HttpClientProperties httpClientProperties,
+                                       MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.httpClient = httpClient;
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.httpClientProperties = httpClientProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RouteHedging hedging = routes.computeIfAbsent(config.getRouteId(), this::newRouteHedging);
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+            if (exchange.getRequest().getMethod() != HttpMethod.GET || isAlreadyRouted(exchange) || url == null
+                    || !("http".equals(url.getScheme()) || "https".equals(url.getScheme()))) {
+                return chain.filter(exchange);
+            }
+            setAlreadyRouted(exchange);
+
+            hedging.requests().increment();
+            hedging.budget().deposit();
+
+            DefaultHttpHeaders headers = requestHeaders(exchange);
+            Duration timeout = responseTimeout(exchange);
+            long delayNanos = hedging.delayNanos();
+            long start = System.nanoTime();
+
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            Mono<Attempt> primary = send(url, headers, timeout, false)
+                    .doOnError(e -> {
+                        primaryError.set(e);
+                        primaryFailed.tryEmitEmpty();
+                    });
+
+            Mono<Void> trigger = delayNanos < 0
+                    ? primaryFailed.asMono()
+                    : Mono.firstWithSignal(Mono.delay(Duration.ofNanos(delayNanos)).then(), primaryFailed.asMono());
+            Mono<Attempt> hedge = trigger.then(Mono.defer(() -> {
+                if (!hedging.budget().tryWithdraw()) {
+                    hedging.budgetExhausted().increment();
+                    return Mono.empty();
+                }
+                hedging.sent().increment();
+                return send(url, headers, timeout, true);
+            }));
+
+            return Mono.firstWithValue(primary, hedge)
+                    .onErrorMap(NoSuchElementException.class, e -> primaryError.get() != null ? primaryError.get() : e)
+                    .flatMap(attempt -> {
+                        // Pencereye ilk isteğin gördüğü süre yazılır: hedge kazandıysa ilk istek en az bu kadar
+                        // sürmüştür. Kazananın kendi süresi yazılsaydı yüzdelik kuyruğu göremez ve küçülürdü.
+                        hedging.latency().record(System.nanoTime() - start);
+                        if (attempt.hedge()) {
+                            hedging.wins().increment();
+                        }
+                        return write(exchange, attempt);
+                    });
+        }, ORDER);
+    }
+
+    private Mono<Attempt> send(URI url, DefaultHttpHeaders headers, Duration timeout, boolean hedge) {
+        return Mono.defer(() -> {
+            HttpClient client = timeout != null ? httpClient.responseTimeout(timeout) : httpClient;
+            return client.headers(h -> h.set(headers))
+                    .get()
+                    .uri(url)
+                    .responseSingle((response, body) -> body.asByteArray()
+                            .defaultIfEmpty(EMPTY_BODY)
+                            .map(bytes -> {
+                                HttpHeaders responseHeaders = new HttpHeaders();
+                                response.responseHeaders().forEach(h -> responseHeaders.add(h.getKey(), h.getValue()));
+                                return new Attempt(response.status().code(), responseHeaders, bytes, hedge);
+                            }))
+                    .onErrorMap(ReadTimeoutException.class,
+                            e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Response took longer than timeout: " + timeout, e));
+        });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, Attempt attempt) {
+        ServerHttpResponse response = exchange.getResponse();
+        exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, attempt.headers().keySet());
+
+        HttpHeaders filtered = HttpHeadersFilter.filter(getHeadersFilters(), attempt.headers(), exchange,
+                HttpHeadersFilter.Type.RESPONSE);
+        // Gövde tek parça yazılır, upstream'in chunked encoding'i taşınmaz
+        filtered.remove(HttpHeaders.TRANSFER_ENCODING);
+        response.setStatusCode(HttpStatusCode.valueOf(attempt.status()));
+        response.getHeaders().addAll(filtered);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(attempt.body())));
+    }
+
+    private DefaultHttpHeaders requestHeaders(ServerWebExchange exchange) {
+        HttpHeaders filtered = HttpHeadersFilter.filterRequest(getHeadersFilters(), exchange);
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        filtered.forEach(headers::set);
+
+        if (Boolean.TRUE.equals(exchange.getAttribute(PRESERVE_HOST_HEADER_ATTRIBUTE))) {
+            headers.set(HttpHeaders.HOST, exchange.getRequest().getHeaders().getFirst(HttpHeaders.HOST));
+        } else {
+            headers.remove(HttpHeaders.HOST);
+        }
+        return headers;
+    }
+
+    /**
+     * NettyRoutingFilter ile aynı: route metadata'sındaki {@code response-timeout} (ms), yoksa global ayar.
+     */
+    private Duration responseTimeout(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        Object routeTimeout = route != null ? route.getMetadata().get(RESPONSE_TIMEOUT_ATTR) : null;
+        if (routeTimeout instanceof Number millis && millis.longValue() >= 0) {
+            return Duration.ofMillis(millis.longValue());
+        }
+        return httpClientProperties.getResponseTimeout();
+    }
+
+    private List<HttpHeadersFilter> getHeadersFilters() {
+        if (headersFilters == null) {
+            headersFilters = headersFiltersProvider.getIfAvailable(List::of);
+        }
+        return headersFilters;
+    }
+
+    private RouteHedging newRouteHedging(String routeId) {
+        LatencyPercentile latency = new LatencyPercentile(percentile, windowSize, minSamples);
+        RetryBudget budget = new RetryBudget(budgetRatio, budgetMaxTokens);
+        RouteHedging hedging = new RouteHedging(latency, budget, minDelay.toNanos(),
+                counter("gateway.hedging.requests", "GET requests handled by the hedging filter", routeId),
+                counter("gateway.hedging.sent", "Hedged or retried requests sent to the upstream", routeId),
+                counter("gateway.hedging.wins", "Responses served from a hedged or retried request", routeId),
+                counter("gateway.hedging.budget-exhausted", "Hedges or retries skipped because the retry budget was empty", routeId));
+
+        TimeGauge.builder("gateway.hedging.delay", hedging, TimeUnit.NANOSECONDS, h -> Math.max(h.delayNanos(), 0))
+                .description("Current delay before a hedged request is sent, 0 until enough samples")
+                .tag(MetricTags.ROUTE, routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.hedging.budget", budget, RetryBudget::getTokens)
+                .description("Tokens left in the retry budget")
+                .tag(MetricTags.ROUTE, routeId)
+                .register(meterRegistry);
+        return hedging;
+    }
+
+    private Counter counter(String name, String description, String routeId) {
+        return Counter.builder(name)
+                .description(description)
+                .tag(MetricTags.ROUTE, routeId)
+                .register(meterRegistry);
+    }
+
+    private record RouteHedging(LatencyPercentile latency, RetryBudget budget, long minDelayNanos,
+                                Counter requests, Counter sent, Counter wins, Counter budgetExhausted) {
+
+        /**
+         * @return hedge gecikmesi; yeterli örnek yoksa {@code -1} (sadece retry)
+         */
+        long delayNanos() {
+            long value = latency.getValueNanos();
+            return value < 0 ? -1 : Math.max(value, minDelayNanos);
+        }
+    }
+
+    private record Attempt(int status, HttpHeaders headers, byte[] body, boolean hedge) {
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+    }
+}
@@ -0,0 +1,274 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.exception.RemoteServiceException;
+import com.modernbank.api_gateway.service.AuthenticatedUser;
+import com.modernbank.api_gateway.service.IdempotencyStore;
+import com.modernbank.api_gateway.service.IdempotentResponse;
+import com.modernbank.api_gateway.service.ResponseCache;
+import com.modernbank.api_gateway.util.BodyCapture;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.AUTHENTICATED_USER;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+
+/**
+ * {@code Idempotency-Key} header'ı taşıyan yazma isteklerini (POST, PUT, PATCH, DELETE) bir kez upstream'e iletir.
+ * Kayıt anahtarı doğrulanmış kullanıcı id'si ve header değeridir; farklı kullanıcıların anahtarları çakışmaz.
+ *
+ * <ul>
+ *     <li>İlk istek anahtarı {@link IdempotencyStore}'da "işleniyor" olarak işaretler, upstream'e gider ve cevabı
+ *     (status, upstream header'ları, gövde) saklar.</li>
+ *     <li>Aynı node'a eşzamanlı gelen tekrarlar upstream'e gitmez, ilk isteğin sonucunu bekler. Başka bir node'da
+ *     işlenen anahtar için {@code poll-interval} aralıklarla store kontrol edilir.</li>
+ *     <li>Sonraki tekrarlar saklanan cevapla, {@code Idempotent-Replayed: true} header'ı eklenerek cevaplanır.</li>
+ *     <li>Aynı anahtarın farklı bir method / path ile kullanılması 422, {@code wait-timeout} içinde bitmeyen
+ *     bekleme 409 ile sonuçlanır.</li>
+ * </ul>
+ *
+ * <p>5xx cevaplar, 408 (istek gövdesi zamanında gelmedi), gateway'in ürettiği hatalar (timeout, bağlantı hatası)
+ * ve {@code max-body-size}'ı aşan gövdeler saklanmaz; anahtar bırakılır ve istemcinin bir sonraki denemesi yeniden işlenir.
+ */
+@Component
+public class IdempotencyGatewayFilterFactory extends AbstractGatewayFilterFactory<IdempotencyGatewayFilterFactory.Config> {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final Set<HttpMethod> METHODS = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+
+    /** Bu node'da işlenmekte olan anahtarlar; tekrarlar buradaki sonucu bekler */
+    private final Map<String, Sinks.One<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final long maxBodyBytes;
+
+    private final Duration waitTimeout;
+
+    private final Duration pollInterval;
+
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyGatewayFilterFactory(IdempotencyStore store,
+                                           @Value("${gateway.idempotency.max-body-size:64KB}") DataSize maxBodySize,
+                                           @Value("${gateway.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                                           @Value("${gateway.idempotency.poll-interval:100ms}") Duration pollInterval,
+                                           MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.store = store;
+        this.maxBodyBytes = maxBodySize.toBytes();
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Cevap decorator'ının NettyWriteResponseFilter tarafından kullanılması için ondan önce çalışmalıdır
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String idempotencyKey = request.getHeaders().getFirst(IDEMPOTENCY_KEY);
+            AuthenticatedUser user = exchange.getAttribute(AUTHENTICATED_USER);
+            if (idempotencyKey == null || user == null || !METHODS.contains(request.getMethod())) {
+                return chain.filter(exchange);
+            }
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+                return Mono.error(new RemoteServiceException(HttpStatus.BAD_REQUEST, "IDEMPOTENCY_KEY_INVALID",
+                        "Idempotency-Key 1 ile " + MAX_KEY_LENGTH + " karakter arasında olmalıdır."));
+            }
+
+            String key = user.getUserInfo().getId() + ':' + idempotencyKey;
+            String fingerprint = request.getMethod().name() + ' ' + request.getURI().getRawPath()
+                    + (request.getURI().getRawQuery() != null ? '?' + request.getURI().getRawQuery() : "");
+            return handle(exchange, chain, key, fingerprint, System.nanoTime() + waitTimeout.toNanos());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> handle(ServerWebExchange exchange, GatewayFilterChain chain, String key, String fingerprint,
+                              long deadline) {
+        Sinks.One<IdempotentResponse> leader = Sinks.one();
+        Sinks.One<IdempotentResponse> pending = inFlight.putIfAbsent(key, leader);
+        if (pending != null) {
+            count("joined");
+            return pending.asMono()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .timeout(remaining(deadline), Mono.error(this::inProgress))
+                    // Boş sonuç: ilk istek saklanabilir bir cevap üretemedi, bu istek anahtarı yeniden almayı dener
+                    .flatMap(result -> result.isPresent()
+                            ? replay(exchange, result.get(), fingerprint)
+                            : handle(exchange, chain, key, fingerprint, deadline));
+        }
+
+        return claimAndRun(exchange, chain, key, fingerprint, deadline)
+                .doOnNext(leader::tryEmitValue)
+                .doFinally(signal -> {
+                    inFlight.remove(key, leader);
+                    leader.tryEmitEmpty();
+                })
+                .then();
+    }
+
+    /**
+     * Anahtarı alırsa isteği upstream'e iletir; başka bir istek (ya da node) tarafından tutuluyorsa sonucu bekler.
+     *
+     * @return saklanan / tekrar oynatılan cevap; saklanabilir bir sonuç yoksa boş
+     */
+    private Mono<IdempotentResponse> claimAndRun(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+                                                 String fingerprint, long deadline) {
+        return store.claim(key, fingerprint).flatMap(claim -> {
+            if (claim.acquired()) {
+                count("forwarded");
+                return forward(exchange, chain, key, claim.owner(), fingerprint);
+            }
+
+            IdempotentResponse existing = claim.existing();
+            if (!existing.fingerprint().equals(fingerprint)) {
+                return Mono.error(keyReused());
+            }
+            if (existing.isCompleted()) {
+                return replay(exchange, existing, fingerprint).thenReturn(existing);
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return Mono.error(inProgress());
+            }
+            return Mono.delay(pollInterval).then(Mono.defer(() -> claimAndRun(exchange, chain, key, fingerprint, deadline)));
+        });
+    }
+
+    private Mono<IdempotentResponse> forward(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+                                             String owner, String fingerprint) {
+        CapturingResponse response = new CapturingResponse(exchange, maxBodyBytes);
+        // İstemci bağlantıyı keserse işaret bırakılmaz; upstream işlemi tamamlamış olabilir, işaret lock-ttl ile düşer
+        return chain.filter(exchange.mutate().response(response).build())
+                .then(Mono.defer(() -> {
+                    IdempotentResponse captured = response.captured(fingerprint);
+                    if (captured == null) {
+                        return store.release(key, owner).then(Mono.<IdempotentResponse>empty());
+                    }
+                    return store.complete(key, owner, captured).thenReturn(captured);
+                }))
+                .onErrorResume(e -> store.release(key, owner).then(Mono.error(e)));
+    }
+
+    private Mono<Void> replay(ServerWebExchange exchange, IdempotentResponse stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            return Mono.error(keyReused());
+        }
+
+        count("replayed");
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(stored.status()));
+        stored.headers().forEach((name, values) -> response.getHeaders().put(name, values));
+        response.getHeaders().set(IDEMPOTENT_REPLAYED, "true");
+        response.getHeaders().setContentLength(stored.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(stored.body())));
+    }
+
+    private Duration remaining(long deadline) {
+        return Duration.ofNanos(Math.max(deadline - System.nanoTime(), 0));
+    }
+
+    private RemoteServiceException inProgress() {
+        count("conflict");
+        return new RemoteServiceException(HttpStatus.CONFLICT, "IDEMPOTENT_REQUEST_IN_PROGRESS",
+                "Aynı Idempotency-Key ile gönderilen istek hâlâ işleniyor. Lütfen daha sonra tekrar deneyiniz.");
+    }
+
+    private RemoteServiceException keyReused() {
+        count("key-reused");
+        return new RemoteServiceException(HttpStatus.UNPROCESSABLE_ENTITY, "IDEMPOTENCY_KEY_REUSED",
+                "Idempotency-Key farklı bir istek için daha önce kullanılmış.");
+    }
+
+    private void count(String result) {
+        outcomes.computeIfAbsent(result, r -> Counter.builder("gateway.idempotency.requests")
+                        .description("Requests carrying an Idempotency-Key by outcome")
+                        .tag("result", r)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Upstream cevabını istemciye akıtırken status, upstream header'ları ve gövdenin bir kopyasını tutar.
+     */
+    private static class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        private final long maxBodyBytes;
+
+        private BodyCapture capture;
+
+        private boolean completed;
+
+        CapturingResponse(ServerWebExchange exchange, long maxBodyBytes) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (status == null || status.is5xxServerError() || status.value() == HttpStatus.REQUEST_TIMEOUT.value()
+                    || getHeaders().getContentLength() > maxBodyBytes) {
+                return super.writeWith(body);
+            }
+
+            BodyCapture current = new BodyCapture(maxBodyBytes, getHeaders().getContentLength());
+            capture = current;
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(current::append)
+                    .doOnComplete(() -> completed = true));
+        }
+
+        IdempotentResponse captured(String fingerprint) {
+            byte[] body = completed ? capture.toByteArray() : null;
+            if (body == null) {
+                return null;
+            }
+
+            Set<String> upstreamHeaderNames = exchange.getAttributeOrDefault(CLIENT_RESPONSE_HEADER_NAMES, Set.of());
+            HttpHeaders headers = ResponseCache.storedHeaders(getHeaders(), upstreamHeaderNames);
+            return new IdempotentResponse(fingerprint, getStatusCode().value(), new LinkedHashMap<>(headers), body);
+        }
+    }
+
+    public static class Config {
+    }
+}
@@ -0,0 +1,210 @@
+package com.modernbank.api_gateway.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+/**
+ * Gateway'in route eşleştirmesi, tüm route'ların predicate'lerini sırayla denemek yerine isteğin ilk path
+ * segmentine göre hazırlanmış bir indeksten aday route'ları alır; route sayısı arttıkça eşleştirme maliyeti artmaz.
+ *
+ * <p>{@code Path=/account/**} gibi ilk segmenti sabit olan route'lar o segmentin altına, indekslenemeyen route'lar
+ * (sabit segmenti olmayan pattern, Path predicate'i olmayan ya da tanımı bulunamayan route) her segmentin aday
+ * listesine eklenir. Adaylar route sırasını korur ve orijinal eşleştirmeyle aynı şekilde değerlendirilir, yani sonuç
+ * değişmez. İndeks route'lar her yenilendiğinde ({@link RefreshRoutesResultEvent}) yeniden hazırlanıp tek bir atama ile
+ * değiştirilir; eşleşmesi bitmiş istekler kendi {@link Route}'larıyla devam eder.
+ */
+@Slf4j
+@Component
+public class IndexedRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping
+        implements ApplicationListener<RefreshRoutesResultEvent> {
+
+    private final RouteLocator routeLocator;
+
+    private final RouteDefinitionLocator routeDefinitionLocator;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /** Route'lar ilk kez yüklenene kadar {@code null}; bu sürede orijinal eşleştirme kullanılır */
+    private volatile RouteIndex index;
+
+    public IndexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler,
+                                               RouteLocator routeLocator,
+                                               RouteDefinitionLocator routeDefinitionLocator,
+                                               GlobalCorsProperties globalCorsProperties,
+                                               Environment environment) {
+        super(webHandler, routeLocator, globalCorsProperties, environment);
+        this.routeLocator = routeLocator;
+        this.routeDefinitionLocator = routeDefinitionLocator;
+    }
+
+    @Override
+    public void onApplicationEvent(RefreshRoutesResultEvent event) {
+        if (!event.isSuccess()) {
+            return;
+        }
+
+        // Üst üste gelen yenilemelerde sadece en sonuncunun indeksi kullanılır
+        long current = generation.incrementAndGet();
+        Mono.zip(routeLocator.getRoutes().collectList(),
+                        routeDefinitionLocator.getRouteDefinitions()
+                                .collectMap(RouteDefinition::getId, definition -> definition, HashMap::new))
+                .map(tuple -> RouteIndex.build(tuple.getT1(), tuple.getT2()))
+                .subscribe(built -> {
+                    if (generation.get() == current) {
+                        index = built;
+                        log.info("Route index rebuilt: {} routes, {} prefixes, {} unindexed",
+                                built.size, built.byFirstSegment.size(), built.unindexed.length);
+                    }
+                }, e -> log.warn("Could not rebuild the route index, keeping the previous one: {}", e.toString()));
+    }
+
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        RouteIndex current = index;
+        if (current == null) {
+            return super.lookupRoute(exchange);
+        }
+
+        return Flux.fromArray(current.candidates(firstSegment(exchange)))
+                .concatMap(route -> Mono.just(route)
+                        .filterWhen(r -> {
+                            exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, r.getId());
+                            return r.getPredicate().apply(exchange);
+                        })
+                        .doOnError(e -> log.error("Error applying predicate for route: " + route.getId(), e))
+                        .onErrorResume(e -> Mono.empty()))
+                .next()
+                .map(route -> {
+                    validateRoute(route, exchange);
+                    return route;
+                });
+    }
+
+    /** Path predicate'iyle aynı şekilde, decode edilmiş ilk segment; path boşsa {@code ""} */
+    private static String firstSegment(ServerWebExchange exchange) {
+        for (PathContainer.Element element : exchange.getRequest().getPath().pathWithinApplication().elements()) {
+            if (element instanceof PathContainer.PathSegment segment) {
+                return segment.valueToMatch();
+            }
+        }
+        return "";
+    }
+
+    static final class RouteIndex {
+
+        private final Map<String, Route[]> byFirstSegment;
+
+        private final Route[] unindexed;
+
+        private final int size;
+
+        private RouteIndex(Map<String, Route[]> byFirstSegment, Route[] unindexed, int size) {
+            this.byFirstSegment = byFirstSegment;
+            this.unindexed = unindexed;
+            this.size = size;
+        }
+
+        Route[] candidates(String firstSegment) {
+            return byFirstSegment.getOrDefault(firstSegment, unindexed);
+        }
+
+        static RouteIndex build(List<Route> routes, Map<String, RouteDefinition> definitions) {
+            // Her route için sabit ilk segmentleri; null ise route her istekte aday olur
+            List<Set<String>> prefixes = new ArrayList<>(routes.size());
+            Set<String> allPrefixes = new LinkedHashSet<>();
+            List<Route> unindexed = new ArrayList<>();
+            for (Route route : routes) {
+                Set<String> routePrefixes = literalPrefixes(definitions.get(route.getId()));
+                prefixes.add(routePrefixes);
+                if (routePrefixes == null) {
+                    unindexed.add(route);
+                } else {
+                    allPrefixes.addAll(routePrefixes);
+                }
+            }
+
+            Map<String, Route[]> byFirstSegment = new HashMap<>();
+            for (String prefix : allPrefixes) {
+                List<Route> candidates = new ArrayList<>();
+                for (int i = 0; i < routes.size(); i++) {
+                    Set<String> routePrefixes = prefixes.get(i);
+                    if (routePrefixes == null || routePrefixes.contains(prefix)) {
+                        candidates.add(routes.get(i));
+                    }
+                }
+                byFirstSegment.put(prefix, candidates.toArray(Route[]::new));
+            }
+            return new RouteIndex(Map.copyOf(byFirstSegment), unindexed.toArray(Route[]::new), routes.size());
+        }
+
+        /**
+         * Route'un ilk Path predicate'indeki pattern'lerin sabit ilk segmentleri. Predicate'ler VE ile bağlandığı
+         * için tek bir Path predicate'i yeterlidir; pattern'lerden biri bile sabit değilse route indekslenmez.
+         */
+        private static Set<String> literalPrefixes(RouteDefinition definition) {
+            if (definition == null) {
+                return null;
+            }
+
+            for (PredicateDefinition predicate : definition.getPredicates()) {
+                if (!"Path".equals(predicate.getName())) {
+                    continue;
+                }
+
+                Set<String> prefixes = new LinkedHashSet<>();
+                for (Map.Entry<String, String> arg : predicate.getArgs().entrySet()) {
+                    if (arg.getKey().startsWith("match")) {
+                        continue;
+                    }
+                    for (String pattern : arg.getValue().split(",")) {
+                        String prefix = literalPrefix(pattern.trim());
+                        if (prefix == null) {
+                            return null;
+                        }
+                        prefixes.add(prefix);
+                    }
+                }
+                return prefixes.isEmpty() ? null : prefixes;
+            }
+            return null;
+        }
+
+        private static String literalPrefix(String pattern) {
+            if (!pattern.startsWith("/")) {
+                return null;
+            }
+
+            int end = pattern.indexOf('/', 1);
+            String segment = end < 0 ? pattern.substring(1) : pattern.substring(1, end);
+            if (segment.isEmpty() || segment.chars().anyMatch(c -> c == '*' || c == '?' || c == '{' || c == '}' || c == '%')) {
+                return null;
+            }
+            return segment;
+        }
+    }
+}
@@ -1,54 +1,31 @@
 package com.modernbank.api_gateway.config;
 
-import com.modernbank.api_gateway.api.client.AuthenticationServiceClient;
-import com.modernbank.api_gateway.api.response.UserInfoResponse;
+import com.modernbank.api_gateway.exception.RemoteServiceException;
+import com.modernbank.api_gateway.service.AuthenticatedUser;
+import com.modernbank.api_gateway.service.TokenValidationService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatusCode;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
-import java.util.Collections;
-import java.util.List;
-
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationManager implements ReactiveAuthenticationManager {
 
-    private final WebClient.Builder webClientBuilder;
+    private final TokenValidationService tokenValidationService;
 
     @Override
     public Mono<Authentication> authenticate(Authentication authentication) {
         String token = authentication.getCredentials().toString();
 
-        return webClientBuilder.build()
-                .get()
-                .uri("http://localhost:8081/authentication/validate?token=" + token)
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
-                .retrieve()
-                .onStatus(HttpStatusCode::is4xxClientError, response ->
-                        Mono.error(new BadCredentialsException("Invalid or expired token"))
-                )
-                .onStatus(HttpStatusCode::is5xxServerError, response ->
-                        Mono.error(new AuthenticationServiceException("Authentication service unreachable"))
-                )
-                .onStatus(HttpStatusCode::isError, response -> Mono.empty()) // hata gelirse auth başarısız
-                .bodyToMono(UserInfoResponse.class)
-                .map(userInfo -> {
-                    UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                            userInfo.getEmail(), null,
-                            userInfo.getAuthorities().stream()
-                                    .map(SimpleGrantedAuthority::new)
-                                    .toList()
-                    );
-                    return auth;
-                });
+        return tokenValidationService.validate(token)
+                .map(AuthenticatedUser::getAuthentication)
+                .onErrorMap(RemoteServiceException.class, e -> e.getStatus() == HttpStatus.UNAUTHORIZED
+                        ? new BadCredentialsException("Invalid or expired token")
+                        : new AuthenticationServiceException("Authentication service unreachable"));
     }
 }
@@ -0,0 +1,57 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.util.MetricTags;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.UPSTREAM_DURATION_NANOS;
+
+/**
+ * Security katmanı dahil isteğin gateway'de geçirdiği toplam süreyi ({@code gateway.request.duration}) ve
+ * bunun upstream dışında kalan kısmını ({@code gateway.overhead.duration}) route id'si ile kaydeder.
+ * Upstream'e hiç gitmeyen isteklerde (401, admin 404, public olmayan hatalar) overhead toplam süreye eşittir.
+ */
+@Component
+@RequiredArgsConstructor
+public class LatencyMetricsFilter implements WebFilter, Ordered {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            long total = System.nanoTime() - start;
+            Long upstream = exchange.getAttribute(UPSTREAM_DURATION_NANOS);
+            String route = MetricTags.route(exchange);
+
+            Timer.builder("gateway.request.duration")
+                    .description("Total time spent on a request in the gateway, including the upstream call")
+                    .tag(MetricTags.ROUTE, route)
+                    .tag(MetricTags.STATUS, MetricTags.statusClass(exchange))
+                    .register(meterRegistry)
+                    .record(total, TimeUnit.NANOSECONDS);
+
+            Timer.builder("gateway.overhead.duration")
+                    .description("Time spent in the gateway excluding the upstream call")
+                    .tag(MetricTags.ROUTE, route)
+                    .register(meterRegistry)
+                    .record(upstream != null ? Math.max(total - upstream, 0) : total, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // Security WebFilterChainProxy'den (-100) önce
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
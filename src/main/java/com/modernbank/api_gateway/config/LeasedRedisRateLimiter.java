@@ -0,0 +1,401 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.util.InFlightRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cluster genelinde kesin limit gereken route'lar için Redis token bucket'ı, ama istek başına değil lease başına
+ * çağıran RateLimiter. Bir node, key'in bucket'ından tek script çağrısıyla bir blok token kiralar (lease) ve sonraki
+ * istekleri lease bitene veya süresi dolana kadar yerelde karşılar. Kiralanan token'lar bucket'tan düşüldüğü için
+ * cluster toplamı hiçbir zaman limiti aşmaz; süresi dolan kullanılmamış token'lar sadece limiti sıkılaştırır.
+ *
+ * <ul>
+ *     <li>Lease boyutu key'in gözlenen istek hızına göre ayarlanır: {@code hız × lease-ttl}, en fazla
+ *     {@code max-lease} ve {@code burstCapacity}.</li>
+ *     <li>Aynı key için eşzamanlı lease talepleri tek çağrıda birleştirilir ({@link InFlightRegistry}); farklı key'lerin
+ *     talepleri ise tek bir çok-key'li script çağrısında batch halinde gönderilir.</li>
+ *     <li>Lease'i bekleyen istekler onu tükenmiş bulursa, bucket'ta token kaldığı sürece yeni lease alır; ani bir
+ *     burst'te kabul edilen istek sayısı RedisRateLimiter ile aynıdır.</li>
+ *     <li>Bucket boşsa bir sonraki token'a kadar olan süre boyunca istekler Redis'e gitmeden reddedilir.</li>
+ * </ul>
+ *
+ * Redis'e istek başına kaç çağrı yapılmadığı {@code gateway.rate-limiter.leased.calls-saved-ratio} ile yayınlanır.
+ * Route args'ında {@code leased-rate-limiter.*} prefix'i kullanılır.
+ */
+@Slf4j
+public class LeasedRedisRateLimiter extends AbstractRateLimiter<LeasedRedisRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "leased-rate-limiter";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static final Duration IDLE_KEY_TTL = Duration.ofMinutes(1);
+
+    /**
+     * KEYS: key başına [tokens, timestamp]; ARGV: key başına [replenishRate, burstCapacity, istenen lease].
+     * Key başına [verilen token, bucket'ta kalan token] döner.
+     */
+    private static final RedisScript<List> LEASE_SCRIPT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local result = {}
+            for i = 1, #KEYS / 2 do
+              local rate = tonumber(ARGV[3 * i - 2])
+              local capacity = tonumber(ARGV[3 * i - 1])
+              local wanted = tonumber(ARGV[3 * i])
+              local ttl = math.max(math.ceil(capacity / rate * 2), 1)
+              local tokens = tonumber(redis.call('GET', KEYS[2 * i - 1])) or capacity
+              local last = tonumber(redis.call('GET', KEYS[2 * i])) or now
+              tokens = math.min(capacity, tokens + math.max(0, now - last) * rate / 1000)
+              local granted = math.max(math.min(wanted, math.floor(tokens)), 0)
+              tokens = tokens - granted
+              redis.call('SET', KEYS[2 * i - 1], tostring(tokens), 'EX', ttl)
+              redis.call('SET', KEYS[2 * i], now, 'EX', ttl)
+              result[2 * i - 1] = granted
+              result[2 * i] = math.floor(tokens)
+            end
+            return result
+            """, List.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    private final Duration leaseTtl;
+
+    private final int maxLease;
+
+    private final int maxBatchSize;
+
+    private final int maxConcurrentBatches;
+
+    private final String keyPrefix;
+
+    private final Map<String, KeyState> states = new ConcurrentHashMap<>();
+
+    private final InFlightRegistry<Lease> inFlightLeases;
+
+    private final Queue<PendingLease> pending = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger batchesInFlight = new AtomicInteger();
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder redisCalls = new LongAdder();
+
+    private final Counter servedLocally;
+
+    private Disposable evictionTask;
+
+    public LeasedRedisRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                  ConfigurationService configurationService,
+                                  MeterRegistry meterRegistry,
+                                  Duration leaseTtl,
+                                  int maxLease,
+                                  int maxBatchSize,
+                                  int maxConcurrentBatches,
+                                  String keyPrefix) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.redisTemplate = redisTemplate;
+        this.leaseTtl = leaseTtl;
+        this.maxLease = maxLease;
+        this.maxBatchSize = maxBatchSize;
+        this.maxConcurrentBatches = maxConcurrentBatches;
+        this.keyPrefix = keyPrefix;
+        this.inFlightLeases = new InFlightRegistry<>(meterRegistry, "gateway.rate-limiter.leased.lease");
+
+        this.servedLocally = Counter.builder("gateway.rate-limiter.leased.calls-saved")
+                .description("Rate limit decisions made from a local lease without calling Redis")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.rate-limiter.leased.requests", requests, LongAdder::sum)
+                .description("Rate limit decisions requested")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.rate-limiter.leased.redis.calls", redisCalls, LongAdder::sum)
+                .description("Batched lease script calls made to Redis")
+                .register(meterRegistry);
+        Gauge.builder("gateway.rate-limiter.leased.calls-saved-ratio", this, LeasedRedisRateLimiter::callsSavedRatio)
+                .description("Redis calls saved per request served (1 - calls / requests)")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        evictionTask = Flux.interval(IDLE_KEY_TTL)
+                .subscribe(tick -> evictIdleKeys());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (evictionTask != null) {
+            evictionTask.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = loadConfiguration(routeId);
+        String key = routeId + ':' + id;
+        KeyState state = states.computeIfAbsent(key, k -> new KeyState());
+
+        state.recordRequest(System.nanoTime());
+        requests.increment();
+
+        return acquire(key, state, config)
+                .onErrorResume(e -> {
+                    // RedisRateLimiter ile aynı davranış: Redis'e ulaşılamazsa isteği engelleme
+                    log.debug("Leased rate limiter could not reach Redis: {}", e.getMessage());
+                    return Mono.just(new Response(true, headers(config, -1L)));
+                });
+    }
+
+    private Mono<Response> acquire(String key, KeyState state, Config config) {
+        Response local = consume(state.lease, config, System.nanoTime());
+        if (local != null) {
+            servedLocally.increment();
+            return Mono.just(local);
+        }
+
+        int leaseSize = state.leaseSize(config, leaseTtl, maxLease);
+        return inFlightLeases.join(key, () -> requestLease(key, config, leaseSize)
+                        .doOnNext(lease -> state.lease = lease))
+                .flatMap(lease -> {
+                    Response response = consume(lease, config, System.nanoTime());
+                    if (response != null) {
+                        return Mono.just(response);
+                    }
+                    // Lease'i bekleyen diğer istekler tüketti; bucket'ta token kaldıysa RedisRateLimiter gibi
+                    // reddetmek yerine yeni bir lease alınır. Her lease en az bir token verdiği için döngü sonlanır.
+                    if (lease.bucketRemaining >= config.getRequestedTokens()) {
+                        return acquire(key, state, config);
+                    }
+                    return Mono.just(new Response(false, headers(config, lease.bucketRemaining)));
+                });
+    }
+
+    /**
+     * @return lease'ten verilen karar; lease yok, süresi dolmuş ya da tükenmişse {@code null}
+     */
+    private Response consume(Lease lease, Config config, long now) {
+        if (lease == null || now >= lease.expiresAt) {
+            return null;
+        }
+        if (lease.denied) {
+            return new Response(false, headers(config, 0L));
+        }
+        long left = lease.tokens.addAndGet(-config.getRequestedTokens());
+        return left >= 0 ? new Response(true, headers(config, left + lease.bucketRemaining)) : null;
+    }
+
+    private Mono<Lease> requestLease(String key, Config config, int leaseSize) {
+        return Mono.<Lease>create(sink -> {
+            pending.add(new PendingLease(key, config, leaseSize, sink));
+            flush();
+        });
+    }
+
+    /**
+     * Bekleyen lease taleplerini tek script çağrısında gönderir. Aynı anda en fazla {@code maxConcurrentBatches}
+     * çağrı açıktır; yük altında talepler bir sonraki batch'te birikir, boştayken ek gecikme olmaz.
+     */
+    private void flush() {
+        while (!pending.isEmpty()) {
+            int inFlight = batchesInFlight.get();
+            if (inFlight >= maxConcurrentBatches) {
+                // Açık batch'lerden biri bittiğinde flush tekrar çağrılır
+                return;
+            }
+            if (!batchesInFlight.compareAndSet(inFlight, inFlight + 1)) {
+                continue;
+            }
+
+            List<PendingLease> batch = new ArrayList<>();
+            PendingLease next;
+            while (batch.size() < maxBatchSize && (next = pending.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                batchesInFlight.decrementAndGet();
+                continue;
+            }
+            executeBatch(batch);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void executeBatch(List<PendingLease> batch) {
+        List<String> keys = new ArrayList<>(batch.size() * 2);
+        List<String> args = new ArrayList<>(batch.size() * 3);
+        for (PendingLease request : batch) {
+            keys.add(keyPrefix + request.key + ".tokens");
+            keys.add(keyPrefix + request.key + ".timestamp");
+            args.add(String.valueOf(request.config.getReplenishRate()));
+            args.add(String.valueOf(request.config.getBurstCapacity()));
+            args.add(String.valueOf(request.leaseSize));
+        }
+
+        redisCalls.increment();
+        redisTemplate.execute(LEASE_SCRIPT, keys, args)
+                .next()
+                .map(result -> (List<Long>) result)
+                .filter(values -> values.size() == batch.size() * 2)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Unexpected lease script result")))
+                .doFinally(signal -> {
+                    batchesInFlight.decrementAndGet();
+                    flush();
+                })
+                .subscribe(values -> {
+                    long now = System.nanoTime();
+                    for (int i = 0; i < batch.size(); i++) {
+                        PendingLease request = batch.get(i);
+                        request.sink.success(Lease.of(values.get(2 * i), values.get(2 * i + 1), request.config, now, leaseTtl));
+                    }
+                }, e -> batch.forEach(request -> request.sink.error(e)));
+    }
+
+    Config loadConfiguration(String routeId) {
+        Config config = getConfig().get(routeId);
+        if (config == null) {
+            config = getConfig().get("defaultFilters");
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("No Configuration found for route " + routeId + " or defaultFilters");
+        }
+        return config;
+    }
+
+    private Map<String, String> headers(Config config, long tokensLeft) {
+        Map<String, String> headers = new HashMap<>(8);
+        headers.put(RedisRateLimiter.REMAINING_HEADER, String.valueOf(tokensLeft));
+        headers.put(RedisRateLimiter.REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(RedisRateLimiter.BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        headers.put(RedisRateLimiter.REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+        return headers;
+    }
+
+    private double callsSavedRatio() {
+        long served = requests.sum();
+        return served == 0 ? 0 : 1.0 - (double) redisCalls.sum() / served;
+    }
+
+    private void evictIdleKeys() {
+        long now = System.nanoTime();
+        states.forEach((key, state) -> {
+            if (now - state.lastRequest > IDLE_KEY_TTL.toNanos()) {
+                states.remove(key, state);
+            }
+        });
+    }
+
+    private record PendingLease(String key, Config config, int leaseSize, MonoSink<Lease> sink) {
+    }
+
+    private static final class Lease {
+
+        final AtomicLong tokens;
+
+        /** Lease alındığında Redis bucket'ında kalan token (header için) */
+        final long bucketRemaining;
+
+        final long expiresAt;
+
+        /** Bucket boştu: expiresAt'e kadar istekler yerelde reddedilir */
+        final boolean denied;
+
+        private Lease(long tokens, long bucketRemaining, long expiresAt, boolean denied) {
+            this.tokens = new AtomicLong(tokens);
+            this.bucketRemaining = bucketRemaining;
+            this.expiresAt = expiresAt;
+            this.denied = denied;
+        }
+
+        static Lease of(long granted, long bucketRemaining, Config config, long now, Duration leaseTtl) {
+            if (granted >= config.getRequestedTokens()) {
+                return new Lease(granted, bucketRemaining, now + leaseTtl.toNanos(), false);
+            }
+            // Bir sonraki istek için yeterli token birikene kadar geçecek süre
+            long refill = NANOS_PER_SECOND * config.getRequestedTokens() / config.getReplenishRate();
+            return new Lease(0, bucketRemaining, now + Math.min(refill, leaseTtl.toNanos()), true);
+        }
+    }
+
+    /**
+     * Key başına lease ve saniyelik pencerelerle EWMA istek hızı.
+     */
+    private static final class KeyState {
+
+        volatile Lease lease;
+
+        volatile long lastRequest;
+
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+        private final LongAdder windowCount = new LongAdder();
+
+        private volatile double ratePerSecond;
+
+        void recordRequest(long now) {
+            lastRequest = now;
+            windowCount.increment();
+            long start = windowStart.get();
+            long elapsed = now - start;
+            if (elapsed >= NANOS_PER_SECOND && windowStart.compareAndSet(start, now)) {
+                double observed = windowCount.sumThenReset() * (double) NANOS_PER_SECOND / elapsed;
+                ratePerSecond = ratePerSecond == 0 ? observed : 0.5 * ratePerSecond + 0.5 * observed;
+            }
+        }
+
+        int leaseSize(Config config, Duration leaseTtl, int maxLease) {
+            // Henüz ölçüm yoksa key'in limit hızında istek yaptığı varsayılır
+            double rate = ratePerSecond > 0 ? ratePerSecond : config.getReplenishRate();
+            long expected = (long) Math.ceil(rate * leaseTtl.toNanos() / NANOS_PER_SECOND) * config.getRequestedTokens();
+            long upper = Math.min(maxLease, config.getBurstCapacity());
+            return (int) Math.max(Math.min(expected, upper), config.getRequestedTokens());
+        }
+    }
+
+    @Getter
+    @Setter
+    @Validated
+    @Accessors(chain = true)
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate;
+
+        @Min(0)
+        private int burstCapacity = 1;
+
+        @Min(1)
+        private int requestedTokens = 1;
+    }
+}
@@ -0,0 +1,304 @@
+package com.modernbank.api_gateway.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code RequestRateLimiter} için Redis'e gitmeyen, süreç içi token bucket. Her key için tek bir {@link AtomicLong}
+ * üzerinde GCRA (generic cell rate algorithm) uygulanır: bucket, bir sonraki token'ın "teorik varış zamanı" (TAT)
+ * olarak tutulur ve istek başına tek bir CAS ile karar verilir. {@code replenishRate}, {@code burstCapacity} ve
+ * {@code requestedTokens} RedisRateLimiter ile aynı anlamdadır ve route args'ında {@code local-rate-limiter.*}
+ * prefix'i ile verilir.
+ *
+ * <p>TAT'ı geçmişte kalan bir bucket, hiç oluşturulmamış bir bucket ile aynıdır; bu yüzden boşta kalan bucket'lar
+ * periyodik olarak kayıpsız silinir.
+ *
+ * <p>Hybrid modda ({@code gateway.rate-limiter.local.hybrid.enabled=true}) her node limiti yerelde uygular ve
+ * {@code reconcile-interval} aralıklarla key başına tüketimini tek bir Lua çağrısında batch halinde Redis'e yazar.
+ * Dönen cluster toplamından diğer node'ların tüketimi hesaplanıp yerel bucket'tan düşülür; böylece cluster geneli limit
+ * yaklaşık olarak korunur ve Redis'e istek başına değil, aralık başına gidilir.
+ */
+@Slf4j
+@Component
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /** KEYS: tüketim sayaçları, ARGV[1]: ttl (saniye), ARGV[i+1]: KEYS[i] için yerel tüketim. Cluster toplamlarını döner. */
+    private static final RedisScript<List> RECONCILE_SCRIPT = RedisScript.of("""
+            local totals = {}
+            for i, key in ipairs(KEYS) do
+              totals[i] = redis.call('INCRBY', key, ARGV[i + 1])
+              redis.call('EXPIRE', key, ARGV[1])
+            end
+            return totals
+            """, List.class);
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    private final boolean hybrid;
+
+    private final Counter reconcileCalls;
+
+    @Value("${gateway.rate-limiter.local.include-headers:true}")
+    private boolean includeHeaders;
+
+    @Value("${gateway.rate-limiter.local.eviction-interval:30s}")
+    private Duration evictionInterval;
+
+    @Value("${gateway.rate-limiter.local.hybrid.reconcile-interval:1s}")
+    private Duration reconcileInterval;
+
+    @Value("${gateway.rate-limiter.local.hybrid.batch-size:500}")
+    private int batchSize;
+
+    @Value("${gateway.rate-limiter.local.hybrid.key-ttl:60s}")
+    private Duration keyTtl;
+
+    @Value("${gateway.rate-limiter.local.hybrid.key-prefix:gateway:rate-limit:{local}:}")
+    private String keyPrefix;
+
+    private final List<Disposable> tasks = new ArrayList<>();
+
+    public LocalRateLimiter(ConfigurationService configurationService,
+                            ObjectProvider<ReactiveStringRedisTemplate> redisTemplate,
+                            @Value("${gateway.rate-limiter.local.hybrid.enabled:false}") boolean hybrid,
+                            MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.redisTemplate = hybrid ? redisTemplate.getIfAvailable() : null;
+        this.hybrid = this.redisTemplate != null;
+        if (hybrid && !this.hybrid) {
+            log.warn("gateway.rate-limiter.local.hybrid.enabled=true but no Redis is configured, limits are enforced per node only");
+        }
+
+        this.reconcileCalls = Counter.builder("gateway.rate-limiter.local.reconcile.calls")
+                .description("Batched Redis calls made to reconcile local rate limiter consumption")
+                .register(meterRegistry);
+        Gauge.builder("gateway.rate-limiter.local.buckets", buckets, Map::size)
+                .description("Active local rate limiter buckets")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        tasks.add(Flux.interval(evictionInterval)
+                .subscribe(tick -> evictIdleBuckets()));
+        if (hybrid) {
+            tasks.add(Flux.interval(reconcileInterval)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> reconcile()
+                            .onErrorResume(e -> {
+                                log.warn("Rate limiter reconciliation with Redis failed: {}", e.getMessage());
+                                return Mono.empty();
+                            }))
+                    .subscribe());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        tasks.forEach(Disposable::dispose);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = loadConfiguration(routeId);
+        long emissionInterval = NANOS_PER_SECOND / config.getReplenishRate();
+        long tolerance = emissionInterval * config.getBurstCapacity();
+        long cost = emissionInterval * config.getRequestedTokens();
+
+        Bucket bucket = buckets.computeIfAbsent(routeId + ':' + id, key -> new Bucket());
+        bucket.emissionInterval = emissionInterval;
+        bucket.tolerance = tolerance;
+
+        long now = System.nanoTime();
+        while (true) {
+            long tat = bucket.tat.get();
+            long newTat = Math.max(tat, now) + cost;
+            long debt = newTat - now;
+            if (debt > tolerance) {
+                long remaining = Math.max((tolerance - (Math.max(tat, now) - now)) / emissionInterval, 0);
+                return Mono.just(new Response(false, headers(config, remaining)));
+            }
+            if (bucket.tat.compareAndSet(tat, newTat)) {
+                if (hybrid) {
+                    bucket.consumed.add(config.getRequestedTokens());
+                    bucket.dirty.set(true);
+                }
+                return Mono.just(new Response(true, headers(config, (tolerance - debt) / emissionInterval)));
+            }
+        }
+    }
+
+    Config loadConfiguration(String routeId) {
+        Config config = getConfig().get(routeId);
+        if (config == null) {
+            config = getConfig().get("defaultFilters");
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("No Configuration found for route " + routeId + " or defaultFilters");
+        }
+        return config;
+    }
+
+    private Map<String, String> headers(Config config, long tokensLeft) {
+        if (!includeHeaders) {
+            return Map.of();
+        }
+        Map<String, String> headers = new HashMap<>(8);
+        headers.put(RedisRateLimiter.REMAINING_HEADER, String.valueOf(tokensLeft));
+        headers.put(RedisRateLimiter.REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(RedisRateLimiter.BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        headers.put(RedisRateLimiter.REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+        return headers;
+    }
+
+    void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.forEach((key, bucket) -> {
+            // Tamamen dolmuş ve Redis'e yazılmamış tüketimi olmayan bucket yeni bir bucket'tan farksızdır
+            if (bucket.tat.get() <= now && bucket.consumed.sum() == 0) {
+                buckets.remove(key, bucket);
+            }
+        });
+    }
+
+    Mono<Void> reconcile() {
+        List<Map.Entry<String, Bucket>> dirty = new ArrayList<>();
+        buckets.forEach((key, bucket) -> {
+            if (bucket.dirty.compareAndSet(true, false)) {
+                dirty.add(Map.entry(key, bucket));
+            }
+        });
+        if (dirty.isEmpty()) {
+            return Mono.empty();
+        }
+
+        List<List<Map.Entry<String, Bucket>>> batches = new ArrayList<>();
+        for (int i = 0; i < dirty.size(); i += batchSize) {
+            batches.add(dirty.subList(i, Math.min(i + batchSize, dirty.size())));
+        }
+        return Flux.fromIterable(batches)
+                .concatMap(this::reconcileBatch)
+                .then();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Void> reconcileBatch(List<Map.Entry<String, Bucket>> batch) {
+        List<String> keys = new ArrayList<>(batch.size());
+        List<String> args = new ArrayList<>(batch.size() + 1);
+        long[] deltas = new long[batch.size()];
+        args.add(String.valueOf(Math.max(keyTtl.toSeconds(), 1)));
+        for (int i = 0; i < batch.size(); i++) {
+            keys.add(keyPrefix + batch.get(i).getKey());
+            deltas[i] = batch.get(i).getValue().consumed.sumThenReset();
+            args.add(String.valueOf(deltas[i]));
+        }
+
+        reconcileCalls.increment();
+        return redisTemplate.execute(RECONCILE_SCRIPT, keys, args)
+                .next()
+                .doOnNext(totals -> {
+                    long now = System.nanoTime();
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).getValue().applyClusterTotal(((List<Long>) totals).get(i), deltas[i], now, reconcileInterval.toNanos() * 2);
+                    }
+                })
+                .doOnError(e -> {
+                    // Yazılamayan tüketimi bir sonraki turda tekrar dene
+                    for (int i = 0; i < batch.size(); i++) {
+                        Bucket bucket = batch.get(i).getValue();
+                        bucket.consumed.add(deltas[i]);
+                        bucket.dirty.set(true);
+                    }
+                })
+                .then();
+    }
+
+    static final class Bucket {
+
+        /** Theoretical arrival time (System.nanoTime tabanlı) */
+        final AtomicLong tat = new AtomicLong(Long.MIN_VALUE / 2);
+
+        /** Hybrid: henüz Redis'e yazılmamış yerel tüketim (token) */
+        final LongAdder consumed = new LongAdder();
+
+        final AtomicBoolean dirty = new AtomicBoolean();
+
+        volatile long emissionInterval;
+
+        volatile long tolerance;
+
+        /** Sadece reconcile akışı tarafından okunur/yazılır */
+        private long lastClusterTotal;
+
+        private long lastSyncNanos = Long.MIN_VALUE / 2;
+
+        /**
+         * Son senkronizasyondan bu yana diğer node'ların tükettiği token'ları bu bucket'a borç olarak yazar.
+         * Uzun süre senkronize edilmemiş bir bucket'ta eski tüketim çoktan yenilenmiş olacağı için borç yazılmaz.
+         */
+        void applyClusterTotal(long clusterTotal, long localDelta, long now, long maxSyncGap) {
+            long others = clusterTotal - lastClusterTotal - localDelta;
+            boolean recentlySynced = now - lastSyncNanos <= maxSyncGap;
+            lastClusterTotal = clusterTotal;
+            lastSyncNanos = now;
+            if (others <= 0 || !recentlySynced) {
+                return;
+            }
+
+            long charge = others * emissionInterval;
+            tat.updateAndGet(current -> Math.min(Math.max(current, now) + charge, now + tolerance));
+        }
+    }
+
+    @Getter
+    @Setter
+    @Validated
+    @Accessors(chain = true)
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate;
+
+        @Min(0)
+        private int burstCapacity = 1;
+
+        @Min(1)
+        private int requestedTokens = 1;
+    }
+}
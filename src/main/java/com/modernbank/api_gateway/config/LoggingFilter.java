@@ -1,12 +1,16 @@
 package com.modernbank.api_gateway.config;
 
 import com.modernbank.api_gateway.constants.HeaderKey;
-import lombok.extern.slf4j.Slf4j;
+import com.modernbank.api_gateway.service.AccessLogRecord;
+import com.modernbank.api_gateway.service.AccessLogWriter;
+import com.modernbank.api_gateway.service.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
@@ -14,65 +18,61 @@ import reactor.core.publisher.Mono;
 import java.net.InetSocketAddress;
 import java.util.Optional;
 
-import static com.modernbank.api_gateway.constants.HeaderKey.USER_ID;
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.AUTHENTICATED_USER;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
 
+/**
+ * Her istek için tek bir yapılandırılmış erişim kaydı üretir. Kayıt event loop'ta sadece oluşturulup
+ * {@link AccessLogWriter}'ın kuyruğuna bırakılır; yazma işi arka plan thread'inde yapılır.
+ */
 @Component
-@Slf4j
+@RequiredArgsConstructor
 public class LoggingFilter implements GlobalFilter, Ordered {
 
+    private final AccessLogWriter accessLogWriter;
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-        String path = request.getURI().getPath();
-        String method = request.getMethod().name();
-        String correlationId = request.getHeaders().getFirst(HeaderKey.CORRELATION_ID);
-
-        // Get IP Address
-        String ipAddress = Optional.ofNullable(request.getRemoteAddress())
-                .map(InetSocketAddress::getAddress)
-                .map(java.net.InetAddress::getHostAddress)
-                .orElse("Unknown IP");
-
-        // Log Request
+        long startNanos = System.nanoTime();
+        long timestamp = System.currentTimeMillis();
 
-        if(correlationId != null) {
-            log.info("Incoming request with Correlation ID: {} -> IP: {}, Method: {}, Path: {}", correlationId, ipAddress, method, path);
-        }else{
-            log.info("Incoming Request -> IP: {}, Method: {}, Path: {}", ipAddress, method, path);
-        }
+        return chain.filter(exchange).doFinally(signal -> {
+            long durationNanos = System.nanoTime() - startNanos;
+            HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+            int status = statusCode != null ? statusCode.value() : 0;
 
-        return chain.filter(exchange).then(Mono.fromRunnable(() -> {
-            ServerHttpResponse response = exchange.getResponse();
-            int statusCode = response.getStatusCode() != null ? response.getStatusCode().value() : 0;
+            if (!accessLogWriter.shouldSample(status)) {
+                return;
+            }
 
-            // Try to get User ID from headers (set by AuthenticationFilter if
-            // authenticated)
-            String userId = request.getHeaders().getFirst(USER_ID);
-            String userLog = (userId != null) ? "User ID: " + userId : "User: Anonymous";
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            // AuthenticationFilter doğrulanmış kullanıcıyı exchange attribute'una koyar;
+            // mutate edilmiş request'in header'larına buradan erişilemez
+            AuthenticatedUser user = exchange.getAttribute(AUTHENTICATED_USER);
 
-            // Log Response
-            if (statusCode >= 400) {
-                log.error("Response -> IP: {}, {}, Status: {}, Path: {}", ipAddress, userLog, statusCode, path);
-            } else {
-                log.info("Response -> IP: {}, {}, Status: {}, Path: {}", ipAddress, userLog, statusCode, path);
-            }
-        }));
+            accessLogWriter.offer(new AccessLogRecord(
+                    timestamp,
+                    request.getHeaders().getFirst(HeaderKey.CORRELATION_ID),
+                    Optional.ofNullable(request.getRemoteAddress())
+                            .map(InetSocketAddress::getAddress)
+                            .map(java.net.InetAddress::getHostAddress)
+                            .orElse(null),
+                    request.getMethod().name(),
+                    request.getURI().getPath(),
+                    route != null ? route.getId() : null,
+                    user != null ? user.getUserInfo().getId() : null,
+                    status,
+                    durationNanos,
+                    accessLogWriter.sampleRateFor(status)
+            ));
+        });
     }
 
     @Override
     public int getOrder() {
-        // Execute before AuthenticationFilter (which is 0) to capture all requests,
-        // but we rely on Auth filter to set X-User-Id for the response log.
-        // Actually, if we want to see X-User-Id in the response log, we need to run
-        // *after* Auth filter has mutated the request?
-        // No, the chain.filter(exchange) runs the rest of the chain.
-        // The .then(...) runs AFTER the chain returns (response phase).
-        // By that time, if Auth filter ran, it might have mutated the request headers
-        // in the exchange *passed down*.
-        // However, exchange.getRequest() in the response phase refers to the request
-        // object.
-        // Let's stick to -1 to ensure we log the *incoming* request as early as
-        // possible.
+        // AuthenticationFilter'dan (0) önce çalışarak auth süresi de dahil tüm isteği ölçer;
+        // doFinally cevap aşamasında çalıştığı için doğrulanmış kullanıcı o anda exchange'te hazırdır.
         return -1;
     }
 }
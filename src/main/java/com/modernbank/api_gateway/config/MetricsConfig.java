@@ -0,0 +1,20 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.util.MetricTags;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Route etiketinin kardinalitesini sınırlar; tanımlı route sayısının üzerine çıkan yeni değerler
+     * (ör. dinamik olarak eklenen route'lar) yeni seri oluşturmak yerine düşürülür.
+     */
+    @Bean
+    public MeterFilter routeTagCardinalityLimit(@Value("${gateway.metrics.max-routes:50}") int maxRoutes) {
+        return MeterFilter.maximumAllowableTags("gateway.", MetricTags.ROUTE, maxRoutes, MeterFilter.deny());
+    }
+}
@@ -0,0 +1,38 @@
+package com.modernbank.api_gateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gateway'in yol sınıflandırma kuralları. {@code public} ve {@code websocket} listeleri path segment
+ * sınırında prefix olarak, {@code admin} listesi ise path içinde herhangi bir yerde geçen parça olarak eşleşir.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.paths")
+public class PathRulesProperties {
+
+    private List<String> publicPaths = new ArrayList<>(List.of(
+            "/authentication",
+            "/api/v1/verification/user",
+            "/account/api/v1/verification/user"
+    ));
+
+    private List<String> websocketPaths = new ArrayList<>(List.of(
+            "/notification/notification-websocket",
+            "/notification-websocket",
+            "/notification/chat-websocket",
+            "/chat-websocket"
+    ));
+
+    private List<String> adminPaths = new ArrayList<>(List.of(
+            "/cache",
+            "/admin"
+    ));
+}
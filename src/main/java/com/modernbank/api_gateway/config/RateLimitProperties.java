@@ -0,0 +1,47 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.service.RateLimitKeys.Dimension;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route ve boyut bazında rate limit tanımları ile istemci IP'sinin çözümlenmesinde güvenilen proxy'ler.
+ * {@code limits} altındaki her route için tanımlanan limitlerin hepsi ayrı bucket'larda uygulanır;
+ * istek ancak hepsinden geçerse upstream'e iletilir.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limiter")
+public class RateLimitProperties {
+
+    /**
+     * {@code X-Forwarded-For} zincirinde güvenilen proxy adresleri (CIDR veya tek IP). Boşsa header dikkate
+     * alınmaz ve bağlantının karşı ucu istemci kabul edilir.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /** Route id → o route'ta uygulanacak limitler */
+    private Map<String, List<Limit>> limits = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        /** Bucket anahtarını oluşturan boyutlar; boyutlardan biri çözümlenemezse limit o istek için atlanır */
+        private List<Dimension> dimensions = new ArrayList<>();
+
+        private int replenishRate;
+
+        private int burstCapacity;
+
+        private int requestedTokens = 1;
+    }
+}
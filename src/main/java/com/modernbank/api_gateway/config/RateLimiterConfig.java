@@ -1,25 +1,72 @@
 package com.modernbank.api_gateway.config;
 
+import com.modernbank.api_gateway.service.RateLimitKeys;
+import com.modernbank.api_gateway.service.RateLimitKeys.Dimension;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import reactor.core.publisher.Mono;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
 
 @Configuration
 public class RateLimiterConfig {
 
+    /**
+     * {@code RequestRateLimiter} için varsayılan anahtar: doğrulanmış kullanıcı id'si, kullanıcı yoksa (public path,
+     * token'sız istek) istemci IP'si. Client'ın gönderdiği {@code X-User-Id} header'ı kullanılmaz; header taklit
+     * edilerek ayrı bir bucket alınamaz. Route ve boyut bazında birden fazla limit için
+     * {@link DimensionalRateLimiterGatewayFilterFactory} kullanılır.
+     */
+    @Bean
+    @Primary
+    public KeyResolver userKeyResolver(RateLimitKeys rateLimitKeys) {
+        return exchange -> rateLimitKeys.resolve(exchange, List.of(Dimension.USER))
+                .map(userId -> "user:" + userId)
+                .switchIfEmpty(rateLimitKeys.resolve(exchange, List.of(Dimension.IP))
+                        .map(ip -> "ip:" + ip));
+    }
+
     @Bean
-    public KeyResolver userHeaderKeyResolver() {
-        return exchange -> {
-            String userId = exchange.getRequest()
-                    .getHeaders()
-                    .getFirst("X-User-Id");
+    public KeyResolver clientIpKeyResolver(RateLimitKeys rateLimitKeys) {
+        return exchange -> rateLimitKeys.resolve(exchange, List.of(Dimension.IP));
+    }
 
-            if (userId == null || userId.isBlank()) {
-                userId = "anonymous";
-            }
+    /**
+     * Gateway'in otomatik oluşturduğu RedisRateLimiter ile aynıdır; {@link LocalRateLimiter} da bir RateLimiter
+     * bean'i olduğu için, route'ta {@code rate-limiter} verilmediğinde kullanılacak varsayılanı belirtmek üzere
+     * {@code @Primary} olarak tanımlanır.
+     */
+    @Bean
+    @Primary
+    public RedisRateLimiter redisRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                             @Qualifier(RedisRateLimiter.REDIS_SCRIPT_NAME) RedisScript<List<Long>> redisScript,
+                                             ConfigurationService configurationService) {
+        return new RedisRateLimiter(redisTemplate, redisScript, configurationService);
+    }
 
-            return Mono.just(userId);
-        };
+    /**
+     * Redis bucket'ından blok halinde token kiralayan limiter; route'ta {@code rate-limiter: "#{@leasedRateLimiter}"}
+     * ve {@code leased-rate-limiter.*} args'ı ile seçilir.
+     */
+    @Bean
+    public LeasedRedisRateLimiter leasedRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                                    ConfigurationService configurationService,
+                                                    MeterRegistry meterRegistry,
+                                                    @Value("${gateway.rate-limiter.leased.lease-ttl:250ms}") Duration leaseTtl,
+                                                    @Value("${gateway.rate-limiter.leased.max-lease:100}") int maxLease,
+                                                    @Value("${gateway.rate-limiter.leased.max-batch-size:256}") int maxBatchSize,
+                                                    @Value("${gateway.rate-limiter.leased.max-concurrent-batches:4}") int maxConcurrentBatches,
+                                                    @Value("${gateway.rate-limiter.leased.key-prefix:gateway:rate-limit:{leased}:}") String keyPrefix) {
+        return new LeasedRedisRateLimiter(redisTemplate, configurationService, meterRegistry,
+                leaseTtl, maxLease, maxBatchSize, maxConcurrentBatches, keyPrefix);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,296 @@
+package com.modernbank.api_gateway.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * {@code application.yml}'deki route'lara ek olarak, gateway yeniden başlatılmadan değiştirilebilen route'lar.
+ * Kaynak {@code gateway.routes.source} ile seçilir ve {@code poll-interval} aralıklarla kontrol edilir:
+ *
+ * <ul>
+ *     <li>{@code file}: {@code gateway.routes.file}'daki JSON dizisi. Dosyanın içeriği değişmediyse okunanla
+ *     aynı tablo korunur.</li>
+ *     <li>{@code redis}: {@code gateway.routes.redis-key} hash'i; alan route id'si, değer tek bir route'un JSON'u.</li>
+ * </ul>
+ *
+ * <p>Route formatı actuator'daki gibidir: {@code {"id":..,"uri":..,"predicates":["Path=/x/**"],"filters":[..]}}.
+ * Tablo bir bütün olarak uygulanır: JSON okunamazsa, id / uri / predicate eksikse, bilinmeyen bir predicate ya da
+ * filtre adı varsa, id {@code application.yml}'deki bir route ile çakışıyorsa veya route'lar gateway'in kendi
+ * {@link RouteDefinitionRouteLocator}'ı ile {@code Route}'a çevrilemiyorsa (hatalı predicate / filtre argümanı,
+ * geçersiz uri) önceki tablo korunur. Değişen tablo {@link RefreshRoutesEvent} ile yayınlanır; gateway yeni route'ları hazırlayıp tek seferde devreye alır, eski
+ * route'la eşleşmiş istekler onunla tamamlanır. Metrikler: {@code gateway.routes.reloads{result}} ve
+ * {@code gateway.routes.dynamic}.
+ */
+@Slf4j
+@Component
+public class ReloadableRouteDefinitionLocator implements RouteDefinitionLocator {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final AtomicReference<List<RouteDefinition>> definitions = new AtomicReference<>(List.of());
+
+    private final ApplicationEventPublisher publisher;
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    private final Set<String> staticRouteIds;
+
+    private final Set<String> predicateNames;
+
+    private final Set<String> filterNames;
+
+    /** Yeni tabloyu devreye almadan önce route'a çevirip argümanlarını doğrular */
+    @SuppressWarnings("rawtypes")
+    private final List<RoutePredicateFactory> predicateFactories;
+
+    @SuppressWarnings("rawtypes")
+    private final List<GatewayFilterFactory> filterFactories;
+
+    private final ConfigurationService configurationService;
+
+    private final String source;
+
+    private final Path file;
+
+    private final String redisKey;
+
+    private final Duration pollInterval;
+
+    private final MeterRegistry meterRegistry;
+
+    /** Son uygulanan ya da reddedilen içerik; aynı içerik tekrar işlenmez */
+    private Object lastContent;
+
+    private Disposable pollTask;
+
+    public ReloadableRouteDefinitionLocator(ApplicationEventPublisher publisher,
+                                            ObjectProvider<ReactiveStringRedisTemplate> redisTemplate,
+                                            GatewayProperties gatewayProperties,
+                                            List<RoutePredicateFactory<?>> predicateFactories,
+                                            List<GatewayFilterFactory<?>> filterFactories,
+                                            ConfigurationService configurationService,
+                                            @Value("${gateway.routes.source:none}") String source,
+                                            @Value("${gateway.routes.file:}") String file,
+                                            @Value("${gateway.routes.redis-key:gateway:routes}") String redisKey,
+                                            @Value("${gateway.routes.poll-interval:5s}") Duration pollInterval,
+                                            MeterRegistry meterRegistry) {
+        this.publisher = publisher;
+        this.source = source.toLowerCase(Locale.ROOT);
+        this.redisTemplate = "redis".equals(this.source) ? redisTemplate.getIfAvailable() : null;
+        this.staticRouteIds = gatewayProperties.getRoutes().stream().map(RouteDefinition::getId).collect(Collectors.toSet());
+        this.predicateNames = predicateFactories.stream().map(RoutePredicateFactory::name).collect(Collectors.toSet());
+        this.filterNames = filterFactories.stream().map(GatewayFilterFactory::name).collect(Collectors.toSet());
+        this.predicateFactories = List.<RoutePredicateFactory>copyOf(predicateFactories);
+        this.filterFactories = List.<GatewayFilterFactory>copyOf(filterFactories);
+        this.configurationService = configurationService;
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.redisKey = redisKey;
+        this.pollInterval = pollInterval;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("gateway.routes.dynamic", definitions, current -> current.get().size())
+                .description("Routes currently loaded from the reloadable route source")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        switch (source) {
+            case "none" -> {
+                return;
+            }
+            case "file" -> {
+                if (file == null) {
+                    throw new IllegalStateException("gateway.routes.source=file requires gateway.routes.file");
+                }
+            }
+            case "redis" -> {
+                if (redisTemplate == null) {
+                    throw new IllegalStateException("gateway.routes.source=redis requires a Redis connection");
+                }
+            }
+            default -> throw new IllegalStateException("Unknown gateway.routes.source: " + source);
+        }
+
+        // İlk tablo açılışta yüklenir; kaynağa ulaşılamazsa sadece application.yml route'larıyla başlanır
+        reload().onErrorResume(this::logFailure).block(Duration.ofSeconds(10));
+        pollTask = Flux.interval(pollInterval, pollInterval, Schedulers.boundedElastic())
+                .onBackpressureDrop()
+                .concatMap(tick -> reload().onErrorResume(this::logFailure))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (pollTask != null) {
+            pollTask.dispose();
+        }
+    }
+
+    @Override
+    public Flux<RouteDefinition> getRouteDefinitions() {
+        return Flux.fromIterable(definitions.get());
+    }
+
+    /**
+     * Kaynağı okur; içerik değiştiyse doğrulayıp uygular.
+     *
+     * @return tablo değiştiyse {@code true}
+     */
+    Mono<Boolean> reload() {
+        Mono<Object> content = "redis".equals(source) ? readRedis() : Mono.fromCallable(this::readFile);
+        return content.flatMap(current -> {
+            if (current.equals(lastContent)) {
+                return Mono.just(false);
+            }
+            lastContent = current;
+
+            List<RouteDefinition> parsed;
+            try {
+                parsed = parse(current);
+                validate(parsed);
+            } catch (Exception e) {
+                return Mono.just(reject(e));
+            }
+
+            return convert(parsed)
+                    .thenReturn(true)
+                    .onErrorResume(e -> Mono.just(reject(e)))
+                    .map(valid -> valid && apply(parsed));
+        });
+    }
+
+    private boolean apply(List<RouteDefinition> parsed) {
+        definitions.set(List.copyOf(parsed));
+        count("applied");
+        log.info("Route table reloaded from {}: {} routes", source, parsed.size());
+        publisher.publishEvent(new RefreshRoutesEvent(this));
+        return true;
+    }
+
+    private boolean reject(Throwable e) {
+        count("rejected");
+        log.warn("Reloaded route table rejected, keeping the previous {} routes: {}", definitions.get().size(), e.getMessage());
+        return false;
+    }
+
+    private Object readFile() throws IOException {
+        return Files.readString(file);
+    }
+
+    /** Alanlar sıralı tutulur, böylece hash'in dönüş sırası değişikliği yeni içerik sayılmaz */
+    private Mono<Object> readRedis() {
+        return redisTemplate.<String, String>opsForHash().entries(redisKey)
+                .collect(TreeMap<String, String>::new, (map, entry) -> map.put(entry.getKey(), entry.getValue()))
+                .map(map -> map);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<RouteDefinition> parse(Object content) throws IOException {
+        if (content instanceof String json) {
+            return json.isBlank() ? List.of() : List.of(OBJECT_MAPPER.readValue(json, RouteDefinition[].class));
+        }
+
+        List<RouteDefinition> parsed = new ArrayList<>();
+        for (Map.Entry<String, String> entry : ((Map<String, String>) content).entrySet()) {
+            RouteDefinition definition = OBJECT_MAPPER.readValue(entry.getValue(), RouteDefinition.class);
+            definition.setId(entry.getKey());
+            parsed.add(definition);
+        }
+        return parsed;
+    }
+
+    private void validate(List<RouteDefinition> parsed) {
+        Set<String> ids = new HashSet<>();
+        for (RouteDefinition definition : parsed) {
+            String id = definition.getId();
+            if (id == null || id.isBlank()) {
+                throw new IllegalArgumentException("route without id");
+            }
+            if (!ids.add(id)) {
+                throw new IllegalArgumentException("duplicate route id " + id);
+            }
+            if (staticRouteIds.contains(id)) {
+                throw new IllegalArgumentException("route id " + id + " is already defined in application.yml");
+            }
+            if (definition.getUri() == null || definition.getPredicates().isEmpty()) {
+                throw new IllegalArgumentException("route " + id + " needs a uri and at least one predicate");
+            }
+            for (PredicateDefinition predicate : definition.getPredicates()) {
+                if (!predicateNames.contains(predicate.getName())) {
+                    throw new IllegalArgumentException("route " + id + " uses unknown predicate " + predicate.getName());
+                }
+            }
+            for (FilterDefinition filter : definition.getFilters()) {
+                if (!filterNames.contains(filter.getName())) {
+                    throw new IllegalArgumentException("route " + id + " uses unknown filter " + filter.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Argümanlar ancak factory'lere bağlanırken doğrulanır; gateway'in yapacağı çeviri burada bir kez denenir.
+     * Varsayılan filtreler statik route'larla zaten doğrulandığı için boş {@link GatewayProperties} kullanılır.
+     */
+    private Mono<Void> convert(List<RouteDefinition> parsed) {
+        return new RouteDefinitionRouteLocator(() -> Flux.fromIterable(parsed), predicateFactories, filterFactories,
+                new GatewayProperties(), configurationService)
+                .getRoutes()
+                .then();
+    }
+
+    private Mono<Boolean> logFailure(Throwable e) {
+        count("failed");
+        log.warn("Could not read the route table from {}: {}", source, e.toString());
+        return Mono.just(false);
+    }
+
+    private void count(String result) {
+        Counter.builder("gateway.routes.reloads")
+                .description("Route table reload attempts by result")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,220 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.util.ErrorBodies;
+import com.modernbank.api_gateway.util.MetricTags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * İstek gövdesini upstream'e akarken denetler; gövde bellekte biriktirilmez, sadece byte'lar sayılır.
+ *
+ * <ul>
+ *     <li>{@code Content-Length} {@code max-size}'ı aşıyorsa istek upstream'e hiç gitmeden 413 ile reddedilir.</li>
+ *     <li>Uzunluğu bilinmeyen (chunked) ya da yanlış bildirilen gövdede sayılan byte'lar {@code max-size}'ı
+ *     aştığında upstream isteği kesilir ve 413 dönülür.</li>
+ *     <li>{@code rate-grace-period}'dan sonra ortalama hız {@code min-rate}'in (saniyede byte) altına düşerse ya da
+ *     iki parça arasında {@code idle-timeout} kadar veri gelmezse 408 dönülür.</li>
+ * </ul>
+ *
+ * <pre>
+ * filters:
+ *   - name: RequestBodyGuard
+ *     args:
+ *       max-size: 256KB
+ * </pre>
+ *
+ * <p>Verilmeyen değerler {@code gateway.request-body} altındaki varsayılanlardan gelir. Reddedilen istekte
+ * bağlantı kapatılır ({@code Connection: close}); okunmamış gövdenin geri kalanı beklenmez. Filtre
+ * {@code NettyRoutingFilter}'dan hemen önce çalışır, bu yüzden hata CircuitBreaker'a upstream hatası olarak
+ * yansımaz. Metrik: {@code gateway.request-body.rejected} ({@code route} ve {@code reason} etiketleriyle).
+ */
+@Component
+public class RequestBodyGuardGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestBodyGuardGatewayFilterFactory.Config> {
+
+    private final MeterRegistry meterRegistry;
+
+    private final DataSize defaultMaxSize;
+
+    private final DataSize defaultMinRate;
+
+    private final Duration defaultRateGracePeriod;
+
+    private final Duration defaultIdleTimeout;
+
+    public RequestBodyGuardGatewayFilterFactory(MeterRegistry meterRegistry,
+                                                @Value("${gateway.request-body.max-size:1MB}") DataSize defaultMaxSize,
+                                                @Value("${gateway.request-body.min-rate:1KB}") DataSize defaultMinRate,
+                                                @Value("${gateway.request-body.rate-grace-period:2s}") Duration defaultRateGracePeriod,
+                                                @Value("${gateway.request-body.idle-timeout:5s}") Duration defaultIdleTimeout) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.defaultMaxSize = defaultMaxSize;
+        this.defaultMinRate = defaultMinRate;
+        this.defaultRateGracePeriod = defaultRateGracePeriod;
+        this.defaultIdleTimeout = defaultIdleTimeout;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Limits limits = new Limits(
+                (config.getMaxSize() != null ? config.getMaxSize() : defaultMaxSize).toBytes(),
+                (config.getMinRate() != null ? config.getMinRate() : defaultMinRate).toBytes(),
+                (config.getRateGracePeriod() != null ? config.getRateGracePeriod() : defaultRateGracePeriod).toNanos(),
+                config.getIdleTimeout() != null ? config.getIdleTimeout() : defaultIdleTimeout);
+
+        Map<Rejection, Counter> rejections = new EnumMap<>(Rejection.class);
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, Counter.builder("gateway.request-body.rejected")
+                    .description("Requests aborted because of an oversized or too slow request body")
+                    .tag(MetricTags.ROUTE, String.valueOf(config.getRouteId()))
+                    .tag("reason", rejection.reason)
+                    .register(meterRegistry));
+        }
+
+        // Gövde NettyRoutingFilter tarafından okunur; hata CircuitBreaker / Idempotency gibi filtrelere ulaşmadan
+        // burada cevaba çevrilir
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            long contentLength = request.getHeaders().getContentLength();
+            if (contentLength == 0 || "websocket".equalsIgnoreCase(request.getHeaders().getUpgrade())) {
+                return chain.filter(exchange);
+            }
+            if (contentLength > limits.maxBytes()) {
+                return reject(exchange, Rejection.TOO_LARGE, rejections);
+            }
+
+            return chain.filter(exchange.mutate().request(new GuardedRequest(request, limits)).build())
+                    .onErrorResume(BodyRejectedException.class, e -> exchange.getResponse().isCommitted()
+                            ? Mono.error(e)
+                            : reject(exchange, e.rejection, rejections));
+        }, NettyRoutingFilter.ORDER - 1);
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, Rejection rejection, Map<Rejection, Counter> rejections) {
+        rejections.get(rejection).increment();
+        exchange.getResponse().getHeaders().set(HttpHeaders.CONNECTION, "close");
+        return ErrorBodies.write(exchange, rejection.status, rejection.body);
+    }
+
+    private enum Rejection {
+        TOO_LARGE("too-large", HttpStatus.PAYLOAD_TOO_LARGE,
+                "İstek gövdesi izin verilen boyutu aşıyor."),
+        TOO_SLOW("too-slow", HttpStatus.REQUEST_TIMEOUT,
+                "İstek gövdesi çok yavaş gönderildi. Lütfen tekrar deneyiniz."),
+        IDLE("idle", HttpStatus.REQUEST_TIMEOUT,
+                "İstek gövdesi zamanında tamamlanmadı. Lütfen tekrar deneyiniz.");
+
+        private final String reason;
+
+        private final HttpStatus status;
+
+        private final ErrorBodies.FixedBody body;
+
+        Rejection(String reason, HttpStatus status, String message) {
+            this.reason = reason;
+            this.status = status;
+            this.body = ErrorBodies.fixed("ERR-" + status.value(), message);
+        }
+    }
+
+    private record Limits(long maxBytes, long minBytesPerSecond, long rateGraceNanos, Duration idleTimeout) {
+    }
+
+    /**
+     * Gövdeyi okuyan tarafa (NettyRoutingFilter) buffer'ları sayarak iletir. Sınır aşıldığında akış
+     * {@link BodyRejectedException} ile biter; elde tutulan buffer bırakılır, upstream isteği kesilir.
+     */
+    private static class GuardedRequest extends ServerHttpRequestDecorator {
+
+        private final Limits limits;
+
+        GuardedRequest(ServerHttpRequest delegate, Limits limits) {
+            super(delegate);
+            this.limits = limits;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.defer(() -> {
+                long start = System.nanoTime();
+                long[] received = {0};
+                return super.getBody()
+                        .timeout(limits.idleTimeout(), Mono.error(() -> new BodyRejectedException(Rejection.IDLE)))
+                        .<DataBuffer>handle((buffer, sink) -> {
+                            received[0] += buffer.readableByteCount();
+                            Rejection rejection = check(received[0], System.nanoTime() - start);
+                            if (rejection != null) {
+                                DataBufferUtils.release(buffer);
+                                sink.error(new BodyRejectedException(rejection));
+                            } else {
+                                sink.next(buffer);
+                            }
+                        })
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+            });
+        }
+
+        private Rejection check(long received, long elapsedNanos) {
+            if (received > limits.maxBytes()) {
+                return Rejection.TOO_LARGE;
+            }
+            if (limits.minBytesPerSecond() > 0 && elapsedNanos > limits.rateGraceNanos()
+                    && received * 1_000_000_000d < limits.minBytesPerSecond() * (double) elapsedNanos) {
+                return Rejection.TOO_SLOW;
+            }
+            return null;
+        }
+    }
+
+    /** Sadece bu filtre içinde taşınır; stack trace üretilmez */
+    private static class BodyRejectedException extends RuntimeException {
+
+        private final Rejection rejection;
+
+        BodyRejectedException(Rejection rejection) {
+            super(rejection.reason, null, false, false);
+            this.rejection = rejection;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        /** Verilmezse {@code gateway.request-body.max-size} */
+        private DataSize maxSize;
+
+        /** Saniyede byte; verilmezse {@code gateway.request-body.min-rate}, 0 ise hız denetlenmez */
+        private DataSize minRate;
+
+        private Duration rateGracePeriod;
+
+        private Duration idleTimeout;
+
+        private String routeId;
+    }
+}
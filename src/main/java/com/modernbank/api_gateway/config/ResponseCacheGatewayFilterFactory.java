@@ -0,0 +1,299 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.service.AuthenticatedUser;
+import com.modernbank.api_gateway.service.ResponseCache;
+import com.modernbank.api_gateway.util.BodyCapture;
+import com.modernbank.api_gateway.util.MetricTags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.AUTHENTICATED_USER;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+
+/**
+ * Kimliği doğrulanmış kullanıcıların GET isteklerini upstream'in {@code Cache-Control} kurallarına göre
+ * {@link ResponseCache}'ten cevaplar. Anahtar route, path + query ve AuthenticationFilter'ın {@code X-User-Id}
+ * header'ına yazdığı doğrulanmış kullanıcı id'sidir; bir kullanıcının cevabı başka bir kullanıcıya dönmez.
+ *
+ * <ul>
+ *     <li>Taze kayıt: upstream'e gidilmez, saklanan gövde kopyalanmadan yazılır ({@code Age} header'ı ile).</li>
+ *     <li>Bayat kayıt: upstream'e {@code If-None-Match} / {@code If-Modified-Since} ile gidilir; 304 gelirse kayıt
+ *     tazelenir ve saklanan gövde döner, 200 gelirse yeni cevap saklanır.</li>
+ *     <li>İstemcinin kendi {@code If-None-Match}'i saklanan ETag ile eşleşirse gövdesiz 304 döner.</li>
+ * </ul>
+ *
+ * <p>Route başına sonuçlar {@code gateway.response-cache.requests{route,result}} ve
+ * {@code gateway.response-cache.hit-ratio{route}} olarak yayınlanır.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private final ResponseCache responseCache;
+
+    private final MeterRegistry meterRegistry;
+
+    /** Route yenilendiğinde filtre tekrar oluşturulsa da sayaçlar ve hit-ratio gauge'u aynı kalır */
+    private final Map<String, RouteMetrics> metricsByRoute = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache responseCache, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.responseCache = responseCache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId();
+        RouteMetrics metrics = metricsByRoute.computeIfAbsent(routeId, id -> new RouteMetrics(id, meterRegistry));
+
+        // Cevap decorator'ının NettyWriteResponseFilter tarafından kullanılması için ondan önce çalışmalıdır.
+        // Doğrulanmış kullanıcı bu noktada hazırdır: korumalı path'lerde token, security zinciri tarafından
+        // gateway filtrelerinden önce doğrulanır.
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            AuthenticatedUser user = exchange.getAttribute(AUTHENTICATED_USER);
+            if (user == null || !HttpMethod.GET.equals(request.getMethod()) || bypassesCache(request.getHeaders())) {
+                metrics.bypass.increment();
+                return chain.filter(exchange);
+            }
+
+            String key = ResponseCache.key(routeId, pathAndQuery(request.getURI()), user.getUserInfo().getId());
+            long now = System.nanoTime();
+            ResponseCache.Entry entry = responseCache.get(key);
+            if (entry != null && entry.isFresh(now)) {
+                metrics.hit.increment();
+                return serve(exchange.getResponse(), request.getHeaders(), entry, now);
+            }
+
+            // Request builder header'ları orijinal request ile paylaşır; istemcinin koşulları önce kopyalanır
+            HttpHeaders clientConditions = clientConditions(request.getHeaders());
+            ServerWebExchange.Builder forwarded = exchange.mutate();
+            ResponseCache.Entry stale = entry != null && entry.hasValidators() ? entry : null;
+            if (stale != null) {
+                forwarded.request(request.mutate()
+                        .headers(headers -> addValidators(headers, stale))
+                        .build());
+            } else {
+                metrics.miss.increment();
+            }
+            forwarded.response(new CachingResponse(exchange, clientConditions, key, stale, metrics));
+            return chain.filter(forwarded.build());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private static boolean bypassesCache(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.RANGE)) {
+            return true;
+        }
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private static String pathAndQuery(URI uri) {
+        String query = uri.getRawQuery();
+        return query != null ? uri.getRawPath() + '?' + query : uri.getRawPath();
+    }
+
+    private static HttpHeaders clientConditions(HttpHeaders requestHeaders) {
+        HttpHeaders conditions = new HttpHeaders();
+        for (String name : List.of(HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE)) {
+            List<String> values = requestHeaders.get(name);
+            if (values != null) {
+                conditions.put(name, List.copyOf(values));
+            }
+        }
+        return conditions;
+    }
+
+    private static void addValidators(HttpHeaders headers, ResponseCache.Entry entry) {
+        // İstemcinin kendi koşulları yerine saklanan kaydınkiler gönderilir; istemciye 304 kararı serve() içinde verilir
+        headers.remove(HttpHeaders.IF_NONE_MATCH);
+        headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+        if (entry.etag() != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, entry.etag());
+        }
+        if (entry.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified());
+        }
+    }
+
+    private static Mono<Void> serve(ServerHttpResponse response, HttpHeaders requestHeaders,
+                                    ResponseCache.Entry entry, long now) {
+        HttpHeaders headers = response.getHeaders();
+        entry.headers().forEach((name, values) -> {
+            if (HttpHeaders.VARY.equalsIgnoreCase(name)) {
+                // CORS'un eklediği Vary değerleri korunur
+                List<String> current = headers.getVary();
+                values.stream().filter(value -> !current.contains(value)).forEach(value -> headers.add(HttpHeaders.VARY, value));
+            } else {
+                headers.put(name, values);
+            }
+        });
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.set(HttpHeaders.AGE, String.valueOf(entry.ageSeconds(now)));
+
+        if (notModified(requestHeaders, entry)) {
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(entry.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+    }
+
+    private static boolean notModified(HttpHeaders requestHeaders, ResponseCache.Entry entry) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            String etag = entry.etag();
+            return etag != null && ifNoneMatch.stream().anyMatch(value -> value.equals("*") || weakEquals(value, etag));
+        }
+
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        long lastModified = entry.headers().getLastModified();
+        return ifModifiedSince >= 0 && lastModified >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    private static boolean weakEquals(String a, String b) {
+        return stripWeak(a).equals(stripWeak(b));
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Upstream cevabını istemciye akıtırken saklanabiliyorsa gövdenin bir kopyasını biriktirir; bayat kayıt için
+     * gelen 304'ü saklanan gövdeyle cevaplar.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        private final HttpHeaders clientConditions;
+
+        private final String key;
+
+        private final ResponseCache.Entry stale;
+
+        private final RouteMetrics metrics;
+
+        CachingResponse(ServerWebExchange exchange, HttpHeaders clientConditions, String key,
+                        ResponseCache.Entry stale, RouteMetrics metrics) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.clientConditions = clientConditions;
+            this.key = key;
+            this.stale = stale;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            Set<String> upstreamHeaderNames = exchange.getAttributeOrDefault(CLIENT_RESPONSE_HEADER_NAMES, Set.of());
+
+            if (stale != null && status != null && status.value() == HttpStatus.NOT_MODIFIED.value()) {
+                metrics.revalidated.increment();
+                ResponseCache.Entry refreshed = responseCache.revalidated(stale, getHeaders(), upstreamHeaderNames);
+                responseCache.put(key, refreshed);
+                return Flux.from(body)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(Mono.defer(() -> serve(getDelegate(), clientConditions, refreshed, System.nanoTime())));
+            }
+            if (stale != null) {
+                metrics.miss.increment();
+            }
+
+            long freshness = ResponseCache.storableFreshness(status, getHeaders());
+            long contentLength = getHeaders().getContentLength();
+            if (freshness < 0 || contentLength > responseCache.getMaxEntryBytes()) {
+                return super.writeWith(body);
+            }
+
+            HttpHeaders storedHeaders = ResponseCache.storedHeaders(getHeaders(), upstreamHeaderNames);
+            BodyCapture capture = new BodyCapture(responseCache.getMaxEntryBytes(), contentLength);
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> {
+                        byte[] captured = capture.toByteArray();
+                        if (captured != null) {
+                            responseCache.put(key, responseCache.newEntry(storedHeaders, captured, freshness));
+                        }
+                    }));
+        }
+    }
+
+    private static class RouteMetrics {
+
+        final Counter hit;
+
+        final Counter revalidated;
+
+        final Counter miss;
+
+        final Counter bypass;
+
+        RouteMetrics(String routeId, MeterRegistry meterRegistry) {
+            this.hit = counter(routeId, "hit", meterRegistry);
+            this.revalidated = counter(routeId, "revalidated", meterRegistry);
+            this.miss = counter(routeId, "miss", meterRegistry);
+            this.bypass = counter(routeId, "bypass", meterRegistry);
+
+            Gauge.builder("gateway.response-cache.hit-ratio", this, RouteMetrics::hitRatio)
+                    .description("Share of cacheable requests answered from the response cache (fresh or revalidated)")
+                    .tag(MetricTags.ROUTE, routeId)
+                    .register(meterRegistry);
+        }
+
+        double hitRatio() {
+            double served = hit.count() + revalidated.count();
+            double total = served + miss.count();
+            return total == 0 ? 0 : served / total;
+        }
+
+        private static Counter counter(String routeId, String result, MeterRegistry meterRegistry) {
+            return Counter.builder("gateway.response-cache.requests")
+                    .description("Cacheable route requests by response cache outcome")
+                    .tag(MetricTags.ROUTE, routeId)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+    }
+}
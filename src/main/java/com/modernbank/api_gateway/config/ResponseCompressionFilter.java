@@ -0,0 +1,254 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.util.MetricTags;
+import com.modernbank.api_gateway.util.StreamingCompressor;
+import com.modernbank.api_gateway.util.StreamingCompressor.Encoding;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.RESPONSE_ENCODING;
+
+/**
+ * Cevapları istemcinin {@code Accept-Encoding}'ine göre gzip ya da deflate ile, gövdeyi biriktirmeden parça parça
+ * sıkıştırır. Sıkıştırma sadece şu durumda yapılır:
+ *
+ * <ul>
+ *     <li>content type {@code mime-types} listesindedir ({@code text/event-stream} hiç sıkıştırılmaz)</li>
+ *     <li>gövde {@code min-size}'dan büyüktür; uzunluk bilinmiyorsa akan bir gövde olduğu varsayılır</li>
+ *     <li>upstream cevabı zaten kodlamamıştır ({@code Content-Encoding}) ve {@code no-transform} istememiştir</li>
+ * </ul>
+ *
+ * <p>Seçilen kodlama exchange'e yazılır; {@code ErrorBodies} sabit hata gövdelerinin önceden sıkıştırılmış
+ * halini buna göre seçer. Metrikler route bazındadır: {@code gateway.compression.bytes.in} ve
+ * {@code gateway.compression.bytes.out} (kazanç = in - out), sıkıştırmaya harcanan süre {@code gateway.compression.time}.
+ * Brotli için JDK'da encoder olmadığından desteklenmez.
+ */
+@Component
+public class ResponseCompressionFilter implements WebFilter, Ordered {
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+
+    private final long minSize;
+
+    private final int level;
+
+    private final List<MediaType> mimeTypes;
+
+    public ResponseCompressionFilter(MeterRegistry meterRegistry,
+                                     @Value("${gateway.compression.enabled:true}") boolean enabled,
+                                     @Value("${gateway.compression.min-size:1KB}") DataSize minSize,
+                                     @Value("${gateway.compression.level:6}") int level,
+                                     @Value("${gateway.compression.mime-types:application/json,application/problem+json,application/xml,application/javascript,text/html,text/plain,text/css,text/xml}") List<MediaType> mimeTypes) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.minSize = minSize.toBytes();
+        this.level = level;
+        this.mimeTypes = mimeTypes;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!enabled || exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+            return chain.filter(exchange);
+        }
+        List<String> acceptEncoding = exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT_ENCODING);
+        Encoding encoding = acceptEncoding != null ? Encoding.negotiate(acceptEncoding) : null;
+        if (encoding == null) {
+            return chain.filter(exchange);
+        }
+
+        exchange.getAttributes().put(RESPONSE_ENCODING, encoding);
+        return chain.filter(exchange.mutate().response(new CompressingResponse(exchange, encoding)).build());
+    }
+
+    private boolean isCompressible(ServerHttpResponse response) {
+        HttpStatusCode status = response.getStatusCode();
+        if (status != null && (status.is1xxInformational() || status.value() == 204 || status.value() == 304)) {
+            return false;
+        }
+
+        HttpHeaders headers = response.getHeaders();
+        String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding != null && !contentEncoding.equalsIgnoreCase("identity")) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-transform")) {
+            return false;
+        }
+        long contentLength = headers.getContentLength();
+        if (contentLength >= 0 && contentLength < minSize) {
+            return false;
+        }
+
+        MediaType contentType;
+        try {
+            contentType = headers.getContentType();
+        } catch (Exception e) {
+            return false;
+        }
+        if (contentType == null) {
+            return false;
+        }
+        for (MediaType mimeType : mimeTypes) {
+            if (mimeType.isCompatibleWith(contentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getOrder() {
+        // LatencyMetricsFilter'dan sonra, AdmissionControlFilter'dan önce (reddedilen cevaplar da kodlamayı görsün)
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    private class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        private final Encoding encoding;
+
+        CompressingResponse(ServerWebExchange exchange, Encoding encoding) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isCompressible(getDelegate())) {
+                return super.writeWith(body);
+            }
+            if (body instanceof Mono<? extends DataBuffer> single && getHeaders().getContentLength() < 0) {
+                // Tek parça gövdenin boyutu yazılmadan önce bilinir
+                return single.flatMap(buffer -> buffer.readableByteCount() < minSize
+                        ? super.writeWith(Mono.just(buffer))
+                        : super.writeWith(compress(Flux.just(buffer))));
+            }
+            return super.writeWith(compress(Flux.from(body)));
+        }
+
+        private Flux<DataBuffer> compress(Flux<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, encoding.token());
+            if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            // Gövde değiştiği için strong ETag byte bazında eşleşmez
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag);
+            }
+
+            StreamingCompressor compressor = new StreamingCompressor(encoding, level);
+            Stats stats = new Stats();
+            return body
+                    .<DataBuffer>handle((buffer, sink) -> {
+                        byte[] compressed;
+                        try {
+                            long start = System.nanoTime();
+                            compressed = compress(compressor, buffer, stats);
+                            stats.nanos += System.nanoTime() - start;
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                        if (compressed.length > 0) {
+                            stats.bytesOut += compressed.length;
+                            sink.next(bufferFactory().wrap(compressed));
+                        }
+                    })
+                    .concatWith(Mono.fromSupplier(() -> {
+                        long start = System.nanoTime();
+                        byte[] tail = compressor.finish();
+                        stats.nanos += System.nanoTime() - start;
+                        stats.bytesOut += tail.length;
+                        return bufferFactory().wrap(tail);
+                    }))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .doFinally(signal -> {
+                        compressor.end();
+                        record(stats);
+                    });
+        }
+
+        private byte[] compress(StreamingCompressor compressor, DataBuffer buffer, Stats stats) {
+            stats.bytesIn += buffer.readableByteCount();
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                byte[] out = iterator.hasNext() ? compressor.compress(iterator.next()) : new byte[0];
+                if (!iterator.hasNext()) {
+                    return out;
+                }
+                // Composite buffer: parçaların çıktısı birleştirilir
+                ByteArrayOutputStream joined = new ByteArrayOutputStream(out.length * 2);
+                joined.writeBytes(out);
+                while (iterator.hasNext()) {
+                    joined.writeBytes(compressor.compress(iterator.next()));
+                }
+                return joined.toByteArray();
+            }
+        }
+
+        private void record(Stats stats) {
+            String route = MetricTags.route(exchange);
+            Counter.builder("gateway.compression.bytes.in")
+                    .description("Response bytes before compression")
+                    .baseUnit("bytes")
+                    .tag(MetricTags.ROUTE, route)
+                    .tag("encoding", encoding.token())
+                    .register(meterRegistry)
+                    .increment(stats.bytesIn);
+            Counter.builder("gateway.compression.bytes.out")
+                    .description("Response bytes after compression")
+                    .baseUnit("bytes")
+                    .tag(MetricTags.ROUTE, route)
+                    .tag("encoding", encoding.token())
+                    .register(meterRegistry)
+                    .increment(stats.bytesOut);
+            Timer.builder("gateway.compression.time")
+                    .description("Time spent compressing a response body")
+                    .tag(MetricTags.ROUTE, route)
+                    .tag("encoding", encoding.token())
+                    .register(meterRegistry)
+                    .record(stats.nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Tek bir cevabın sayaçları; cevap akışı sıralı olduğundan senkronizasyon gerekmez */
+    private static final class Stats {
+
+        private long bytesIn;
+
+        private long bytesOut;
+
+        private long nanos;
+    }
+}
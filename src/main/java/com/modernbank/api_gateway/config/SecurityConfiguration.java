@@ -1,23 +1,19 @@
 package com.modernbank.api_gateway.config;
 
+import com.modernbank.api_gateway.service.PathClassifier;
+import com.modernbank.api_gateway.service.PathClassifier.PathClass;
+import com.modernbank.api_gateway.util.ErrorBodies;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsConfigurationSource;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
-import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
 import java.util.Arrays;
 
 @Configuration
@@ -29,6 +25,8 @@ public class SecurityConfiguration {
 
     private final SecurityContextRepository securityContextRepository;
 
+    private final PathClassifier pathClassifier;
+
     @Bean
     public SecurityWebFilterChain securityFilterChain(ServerHttpSecurity http) throws Exception {
         return http
@@ -39,63 +37,14 @@ public class SecurityConfiguration {
                 .securityContextRepository(securityContextRepository)
                 .authorizeExchange(exchange -> exchange
                         .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-                        .pathMatchers("/account/api/v1/verification/user/**").permitAll()
-                        .pathMatchers("/api/v1/verification/user/**").permitAll()
-                        .pathMatchers("/notification/notification-websocket/**").permitAll()
-                        .pathMatchers("/notification-websocket/**").permitAll()
-                        .pathMatchers("/chat-websocket/**").permitAll()
-                        .pathMatchers("/notification/chat-websocket/**").permitAll()
-                        .pathMatchers("/authentication/**").permitAll()
+                        .matchers(pathClassifier.matcher(PathClass.PUBLIC, PathClass.WEBSOCKET)).permitAll()
                         .anyExchange().authenticated()
                 )
                 .exceptionHandling(exceptionHandling -> exceptionHandling
                         // 1. Authentication Entry Point (Giriş yapılmamış veya Token geçersiz)
-                        .authenticationEntryPoint((exchange, ex) -> {
-                            ServerHttpResponse response = exchange.getResponse();
-                            response.setStatusCode(HttpStatus.UNAUTHORIZED);
-                            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-                            // JSON Formatında Anlamlı Mesaj Oluşturma
-                            String body = String.format("""
-                                {
-                                    "timestamp": "%s",
-                                    "status": 401,
-                                    "error": "Unauthorized",
-                                    "message": "Erişim reddedildi: Geçersiz veya eksik token.",
-                                    "path": "%s"
-                                }
-                                """,
-                                    LocalDateTime.now(),
-                                    exchange.getRequest().getPath().value()
-                            );
-
-                            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
-                            DataBuffer buffer = response.bufferFactory().wrap(bytes);
-                            return response.writeWith(Mono.just(buffer));
-                        })
+                        .authenticationEntryPoint((exchange, ex) -> ErrorBodies.write(exchange, ErrorBodies.UNAUTHORIZED))
                         // 2. Access Denied Handler (Giriş yapılmış ama yetki yetmiyor - Role mismatch)
-                        .accessDeniedHandler((exchange, denied) -> {
-                            ServerHttpResponse response = exchange.getResponse();
-                            response.setStatusCode(HttpStatus.FORBIDDEN);
-                            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-                            String body = String.format("""
-                                {
-                                    "timestamp": "%s",
-                                    "status": 403,
-                                    "error": "Forbidden",
-                                    "message": "Bu işlem için yetkiniz bulunmamaktadır.",
-                                    "path": "%s"
-                                }
-                                """,
-                                    LocalDateTime.now(),
-                                    exchange.getRequest().getPath().value()
-                            );
-
-                            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
-                            DataBuffer buffer = response.bufferFactory().wrap(bytes);
-                            return response.writeWith(Mono.just(buffer));
-                        })
+                        .accessDeniedHandler((exchange, denied) -> ErrorBodies.write(exchange, ErrorBodies.FORBIDDEN))
                 )
                 .build();
     }
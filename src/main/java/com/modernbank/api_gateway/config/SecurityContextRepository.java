@@ -1,8 +1,11 @@
 package com.modernbank.api_gateway.config;
 
+import com.modernbank.api_gateway.exception.RemoteServiceException;
+import com.modernbank.api_gateway.service.AuthenticatedUser;
+import com.modernbank.api_gateway.service.PathClassifier;
+import com.modernbank.api_gateway.service.TokenValidationService;
 import org.springframework.http.HttpHeaders;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.web.server.context.ServerSecurityContextRepository;
 import org.springframework.stereotype.Component;
@@ -12,10 +15,13 @@ import reactor.core.publisher.Mono;
 @Component
 public class SecurityContextRepository implements ServerSecurityContextRepository {
 
-    private final JwtAuthenticationManager authenticationManager;
+    private final TokenValidationService tokenValidationService;
 
-    public SecurityContextRepository(JwtAuthenticationManager authenticationManager) {
-        this.authenticationManager = authenticationManager;
+    private final PathClassifier pathClassifier;
+
+    public SecurityContextRepository(TokenValidationService tokenValidationService, PathClassifier pathClassifier) {
+        this.tokenValidationService = tokenValidationService;
+        this.pathClassifier = pathClassifier;
     }
 
     @Override
@@ -27,22 +33,18 @@ public class SecurityContextRepository implements ServerSecurityContextRepositor
     public Mono<SecurityContext> load(ServerWebExchange exchange) {
         String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
 
-        //Burasini kaldirabilirmisim bir onemi yokmus.
-        if (exchange.getRequest().getPath().toString().startsWith("/authentication") ||
-                exchange.getRequest().getPath().toString().startsWith("/api/v1/verification/user") ||
-                exchange.getRequest().getPath().toString().startsWith("/account/api/v1/verification/user")||
-                exchange.getRequest().getPath().toString().startsWith("/notification/notification-websocket")||
-                exchange.getRequest().getPath().toString().startsWith("/notification-websocket")||
-                exchange.getRequest().getPath().toString().startsWith("/notification/chat-websocket")||
-                exchange.getRequest().getPath().toString().startsWith("/chat-websocket")
-        ) {
+        if (pathClassifier.classify(exchange).skipsAuthentication()) {
             return Mono.empty();
         }
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            Authentication auth = new UsernamePasswordAuthenticationToken(token, token);
-            return authenticationManager.authenticate(auth).map(org.springframework.security.core.context.SecurityContextImpl::new);
+            // Sonuç exchange'e yazılır, AuthenticationFilter aynı doğrulamayı tekrar kullanır
+            return tokenValidationService.validate(exchange, token)
+                    .map(AuthenticatedUser::getSecurityContext)
+                    .onErrorResume(RemoteServiceException.class, e -> e.getStatus() == HttpStatus.UNAUTHORIZED
+                            ? Mono.empty()
+                            : Mono.error(e));
         }
         return Mono.empty();
     }
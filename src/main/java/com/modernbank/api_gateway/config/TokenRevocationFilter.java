@@ -0,0 +1,79 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.service.TokenValidationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Logout isteği upstream'de başarıyla tamamlandığında, isteğin bearer token'ını token cache'inden
+ * düşürür. {@code logout-all-paths} altındaki istekler ise token'ın sahibi olan kullanıcının bütün token'larını düşürür.
+ * Redis katmanı açıksa revocation diğer gateway node'larına da yayınlanır.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationFilter implements GlobalFilter, Ordered {
+
+    private final TokenValidationService tokenValidationService;
+
+    @Value("${gateway.auth.cache.revocation.logout-paths:/authentication/logout}")
+    private List<String> logoutPaths;
+
+    @Value("${gateway.auth.cache.revocation.logout-all-paths:}")
+    private List<String> logoutAllPaths;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        boolean logoutAll = logoutAllPaths.contains(path);
+        if (!logoutAll && !logoutPaths.contains(path)) {
+            return chain.filter(exchange);
+        }
+
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        String token = authHeader.substring(7);
+        if (!logoutAll) {
+            return chain.filter(exchange).then(Mono.defer(() -> isSuccessful(exchange)
+                    ? tokenValidationService.revoke(token)
+                    : Mono.empty()));
+        }
+
+        // Logout path'leri public olduğu için AuthenticationFilter token'ı doğrulamaz; kullanıcı, upstream token'ı
+        // geçersiz kılmadan önce token'dan çözülür. Çözülemezse istek yine iletilir, sadece revocation yapılmaz.
+        return tokenValidationService.validate(exchange, token)
+                .map(user -> Optional.of(user.getUserInfo().getId()))
+                .onErrorResume(e -> {
+                    log.warn("User of logout-all request could not be resolved, skipping revocation: {}", e.getMessage());
+                    return Mono.just(Optional.empty());
+                })
+                .flatMap(userId -> chain.filter(exchange).then(Mono.defer(() -> userId.isPresent() && isSuccessful(exchange)
+                        ? tokenValidationService.revokeUser(userId.get())
+                        : Mono.empty())));
+    }
+
+    private static boolean isSuccessful(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && status.is2xxSuccessful();
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+}
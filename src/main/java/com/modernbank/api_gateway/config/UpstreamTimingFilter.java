@@ -0,0 +1,55 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.util.MetricTags;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.UPSTREAM_DURATION_NANOS;
+
+/**
+ * Routing filtresinin hemen önünde çalışır ve upstream servisin cevap header'larını dönmesine kadar geçen
+ * süreyi route id'si ile {@code gateway.upstream.duration} timer'ına yazar. Süre exchange'e de konur,
+ * böylece {@link LatencyMetricsFilter} gateway'in kendi eklediği süreyi hesaplayabilir.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        // doFinally dıştan içe çalışır, yani LatencyMetricsFilter'dan sonra; süre sinyal dışarı iletilmeden yazılır
+        return chain.filter(exchange)
+                .doOnTerminate(() -> record(exchange, start))
+                .doOnCancel(() -> record(exchange, start));
+    }
+
+    private void record(ServerWebExchange exchange, long start) {
+        long duration = System.nanoTime() - start;
+        exchange.getAttributes().put(UPSTREAM_DURATION_NANOS, duration);
+
+        Timer.builder("gateway.upstream.duration")
+                .description("Time until the upstream service returned response headers")
+                .tag(MetricTags.ROUTE, MetricTags.route(exchange))
+                .tag(MetricTags.STATUS, MetricTags.statusClass(exchange))
+                .register(meterRegistry)
+                .record(duration, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int getOrder() {
+        // NettyRoutingFilter (LOWEST_PRECEDENCE) ve Hedging filtresinin (LOWEST_PRECEDENCE - 1) önü
+        return Ordered.LOWEST_PRECEDENCE - 2;
+    }
+}
@@ -0,0 +1,36 @@
+package com.modernbank.api_gateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Gateway'in proxy'lediği WebSocket bağlantılarının node başına sınırları ve canlılık ayarları.
+ * Kullanıcı, bearer header'ı ya da {@code token} query parametresindeki doğrulanmış token'ın kullanıcı id'sidir;
+ * token'sız veya geçersiz token'lı bağlantılarda istemci IP'si kullanılır (aynı NAT arkasındaki anonim istemciler
+ * sınırı paylaşır).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.websocket")
+public class WebSocketProperties {
+
+    /** Node üzerinde aynı anda açık bağlantı üst sınırı, aşınca 503 */
+    private int maxConnections = 10000;
+
+    /** Aynı kullanıcının (ya da IP'nin) aynı anda açık bağlantı üst sınırı, aşınca 429 */
+    private int maxConnectionsPerUser = 10;
+
+    /** İstemciden bu süre boyunca hiçbir frame (pong dahil) gelmezse bağlantı kapatılır; 0 ise kapalı */
+    private Duration idleTimeout = Duration.ofSeconds(90);
+
+    /** İstemciye ping gönderme aralığı; 0 ise ping gönderilmez */
+    private Duration pingInterval = Duration.ofSeconds(30);
+
+    /** Yavaş istemciye gönderilmeyi bekleyen mesaj sayısı; dolunca en eski mesaj düşürülür */
+    private int outboundBufferSize = 256;
+}
@@ -0,0 +1,19 @@
+package com.modernbank.api_gateway.constants;
+
+public class ExchangeAttributeKey {
+
+    /** Exchange'e ait tek token doğrulama işlemi ({@code Mono<AuthenticatedUser>}, cache'lenmiş) */
+    public static final String TOKEN_VALIDATION = "modernbank.gateway.tokenValidation";
+
+    /** Doğrulama tamamlandıktan sonra çözümlenen {@code AuthenticatedUser} */
+    public static final String AUTHENTICATED_USER = "modernbank.gateway.authenticatedUser";
+
+    /** İsteğin {@code PathClassifier.PathClass} sınıflandırması */
+    public static final String PATH_CLASS = "modernbank.gateway.pathClass";
+
+    /** Upstream çağrısının nanosaniye cinsinden süresi ({@code Long}), UpstreamTimingFilter tarafından yazılır */
+    public static final String UPSTREAM_DURATION_NANOS = "modernbank.gateway.upstreamDurationNanos";
+
+    /** İstemcinin kabul ettiği cevap kodlaması ({@code StreamingCompressor.Encoding}), ResponseCompressionFilter tarafından yazılır */
+    public static final String RESPONSE_ENCODING = "modernbank.gateway.responseEncoding";
+}
@@ -1,6 +1,8 @@
 package com.modernbank.api_gateway.controller;
 
+import com.modernbank.api_gateway.util.ErrorBodies;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -11,6 +13,9 @@ import java.util.Map;
 @RestController
 public class FallBackController {
 
+    private static final byte[] SERVICE_UNAVAILABLE = ErrorBodies.baseResponse("ERR-503",
+            "Servis geçici olarak kullanılamıyor. Lütfen daha sonra tekrar deneyiniz.");
+
     @RequestMapping("/fallback/authentication")
     public ResponseEntity<Map<String, String>> authenticationFallback() {
         Map<String, String> response = new HashMap<>();
@@ -19,4 +24,14 @@ public class FallBackController {
         response.put("processMessage", "Authentication service temporarily unavailable");
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
     }
+
+    /**
+     * Circuit breaker açıkken ya da upstream zaman aşımına uğradığında diğer route'ların döndüğü cevap.
+     */
+    @RequestMapping("/fallback/service")
+    public ResponseEntity<byte[]> serviceFallback() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(SERVICE_UNAVAILABLE);
+    }
 }
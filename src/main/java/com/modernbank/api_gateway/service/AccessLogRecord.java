@@ -0,0 +1,50 @@
+package com.modernbank.api_gateway.service;
+
+import com.modernbank.api_gateway.util.JsonStrings;
+
+/**
+ * Bir isteğe ait tek erişim kaydı. Event loop üzerinde sadece bu nesne oluşturulur;
+ * formatlama ve yazma işi {@link AccessLogWriter}'ın thread'inde yapılır.
+ *
+ * @param sampleRate kaydın hangi oranla örneklendiği (hatalar için her zaman 1.0)
+ */
+public record AccessLogRecord(
+        long timestamp,
+        String correlationId,
+        String ipAddress,
+        String method,
+        String path,
+        String routeId,
+        String userId,
+        int status,
+        long durationNanos,
+        double sampleRate
+) {
+
+    /**
+     * Tek satırlık JSON gösterimi.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256)
+                .append("{\"timestamp\":").append(timestamp);
+        appendField(json, "correlationId", correlationId);
+        appendField(json, "ip", ipAddress);
+        appendField(json, "method", method);
+        appendField(json, "path", path);
+        appendField(json, "routeId", routeId);
+        appendField(json, "userId", userId);
+        return json.append(",\"status\":").append(status)
+                .append(",\"durationNanos\":").append(durationNanos)
+                .append(",\"sampleRate\":").append(sampleRate)
+                .append('}')
+                .toString();
+    }
+
+    private static void appendField(StringBuilder json, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        json.append(",\"").append(name).append("\":\"");
+        JsonStrings.appendEscaped(json, value).append('"');
+    }
+}
@@ -0,0 +1,147 @@
+package com.modernbank.api_gateway.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Erişim kayıtlarını sınırlı bir kuyrukta toplar ve arka plandaki tek bir daemon thread ile
+ * batch halinde {@value #ACCESS_LOGGER} logger'ına yazar. Event loop hiçbir zaman dosya I/O'su beklemez:
+ * kuyruk doluysa kayıt düşürülür ve {@code gateway.access-log.dropped} sayacı artırılır.
+ *
+ * <p>Başarılı (2xx/3xx) cevaplar {@code gateway.access-log.success-sample-rate} oranında örneklenir;
+ * 4xx/5xx ve status'u olmayan cevaplar her zaman yazılır.
+ */
+@Slf4j
+@Component
+public class AccessLogWriter {
+
+    public static final String ACCESS_LOGGER = "com.modernbank.api_gateway.access";
+
+    private static final Logger accessLog = LoggerFactory.getLogger(ACCESS_LOGGER);
+
+    private final BlockingQueue<AccessLogRecord> queue;
+
+    private final int batchSize;
+
+    private final double successSampleRate;
+
+    private final Duration flushInterval;
+
+    private final Counter dropped;
+
+    private volatile boolean running;
+
+    private Thread writerThread;
+
+    public AccessLogWriter(@Value("${gateway.access-log.buffer-size:8192}") int bufferSize,
+                           @Value("${gateway.access-log.batch-size:256}") int batchSize,
+                           @Value("${gateway.access-log.success-sample-rate:0.1}") double successSampleRate,
+                           @Value("${gateway.access-log.flush-interval:200ms}") Duration flushInterval,
+                           MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.successSampleRate = successSampleRate;
+        this.flushInterval = flushInterval;
+        this.dropped = Counter.builder("gateway.access-log.dropped")
+                .description("Access log records dropped because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("gateway.access-log.queue.size", queue, BlockingQueue::size)
+                .description("Access log records waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writerThread = new Thread(this::drainLoop, "access-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            writerThread.join(flushInterval.toMillis() * 5);
+        }
+    }
+
+    /**
+     * Bu status için kaydın yazılıp yazılmayacağına karar verir.
+     */
+    public boolean shouldSample(int status) {
+        if (status == 0 || status >= 400 || successSampleRate >= 1.0) {
+            return true;
+        }
+        return successSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < successSampleRate;
+    }
+
+    public double sampleRateFor(int status) {
+        return status == 0 || status >= 400 ? 1.0 : Math.min(successSampleRate, 1.0);
+    }
+
+    /**
+     * Bloklamadan kuyruğa ekler.
+     *
+     * @return kuyruk doluysa {@code false}
+     */
+    public boolean offer(AccessLogRecord record) {
+        if (queue.offer(record)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private void drainLoop() {
+        List<AccessLogRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AccessLogRecord first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // Kapanışta kuyrukta kalanları yazıp çık
+                queue.drainTo(batch);
+                write(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Access log batch could not be written: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AccessLogRecord> batch) {
+        for (AccessLogRecord record : batch) {
+            if (record.status() >= 400 || record.status() == 0) {
+                accessLog.warn(record.toJson());
+            } else {
+                accessLog.info(record.toJson());
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.modernbank.api_gateway.service;
+
+import com.modernbank.api_gateway.api.response.UserInfoResponse;
+import lombok.Getter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Doğrulanmış bir token'ın çözümlenmiş hali. Filtrelerin her istekte yeniden
+ * hesapladığı authority listesi, rol header'ı ve SecurityContext burada bir kez oluşturulur.
+ */
+@Getter
+public class AuthenticatedUser {
+
+    private final UserInfoResponse userInfo;
+
+    private final List<GrantedAuthority> authorities;
+
+    private final String roleHeader;
+
+    private final Authentication authentication;
+
+    private final SecurityContext securityContext;
+
+    private final Instant expiresAt;
+
+    public AuthenticatedUser(UserInfoResponse userInfo, Instant expiresAt) {
+        List<String> roles = userInfo.getAuthorities() != null ? userInfo.getAuthorities() : List.of();
+
+        this.userInfo = userInfo;
+        this.authorities = roles.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        this.roleHeader = String.join(",", roles);
+        this.authentication = new UsernamePasswordAuthenticationToken(userInfo.getEmail(), null, this.authorities);
+        this.securityContext = new SecurityContextImpl(this.authentication);
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isAdmin() {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(auth -> auth.equalsIgnoreCase("ROLE_ADMIN") || auth.equalsIgnoreCase("ADMIN"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.modernbank.api_gateway.service;
+
+import com.modernbank.api_gateway.config.RateLimitProperties;
+import io.netty.util.NetUtil;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * İsteğin gerçek istemci IP'sini çözümler. {@code X-Forwarded-For} sadece bağlantı güvenilen bir proxy'den
+ * geliyorsa okunur ve zincir sağdan sola yürünür; güvenilmeyen ilk adres istemcidir. Böylece istemcinin header'a
+ * kendi yazdığı adresler, güvenilen proxy'lerin eklediklerinin solunda kalır ve dikkate alınmaz.
+ *
+ * <p>Adresler sadece IP literal'i olarak parse edilir, header içeriği için hiçbir zaman DNS sorgusu yapılmaz.
+ */
+@Component
+public class ClientIpResolver {
+
+    public static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<Cidr> trustedProxies;
+
+    public ClientIpResolver(RateLimitProperties properties) {
+        this.trustedProxies = properties.getTrustedProxies().stream()
+                .filter(value -> value != null && !value.isBlank())
+                .map(Cidr::parse)
+                .toList();
+    }
+
+    /**
+     * @return istemci IP'si; bağlantı adresi bilinmiyorsa {@code null}
+     */
+    public String resolve(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return null;
+        }
+
+        InetAddress client = remoteAddress.getAddress();
+        if (!isTrusted(client)) {
+            return client.getHostAddress();
+        }
+
+        List<String> forwarded = request.getHeaders().get(X_FORWARDED_FOR);
+        if (forwarded == null) {
+            return client.getHostAddress();
+        }
+
+        // Birden fazla header satırı tek bir virgüllü liste gibi, en sondaki hop'tan geriye doğru okunur
+        for (int i = forwarded.size() - 1; i >= 0; i--) {
+            String[] hops = forwarded.get(i).split(",");
+            for (int j = hops.length - 1; j >= 0; j--) {
+                InetAddress hop = parse(hops[j]);
+                if (hop == null) {
+                    // Parse edilemeyen bir değer zinciri bozar; son güvenilen hop'un gördüğü adreste kalınır
+                    return client.getHostAddress();
+                }
+                client = hop;
+                if (!isTrusted(hop)) {
+                    return hop.getHostAddress();
+                }
+            }
+        }
+
+        // Zincirin tamamı güvenilen proxy'lerden oluşuyor
+        return client.getHostAddress();
+    }
+
+    private boolean isTrusted(InetAddress address) {
+        for (Cidr cidr : trustedProxies) {
+            if (cidr.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static InetAddress parse(String value) {
+        String address = value.trim();
+        if (address.startsWith("[")) {
+            // [2001:db8::1]:443
+            int end = address.indexOf(']');
+            address = end > 0 ? address.substring(1, end) : address;
+        } else if (address.indexOf(':') > 0 && address.indexOf(':') == address.lastIndexOf(':')) {
+            // 203.0.113.7:51234
+            address = address.substring(0, address.indexOf(':'));
+        }
+        return NetUtil.createInetAddressFromIpAddressString(address);
+    }
+
+    private record Cidr(byte[] network, int prefixLength) {
+
+        static Cidr parse(String value) {
+            String trimmed = value.trim();
+            int slash = trimmed.indexOf('/');
+            String address = slash < 0 ? trimmed : trimmed.substring(0, slash);
+
+            byte[] network = NetUtil.createByteArrayFromIpAddressString(address);
+            if (network == null) {
+                throw new IllegalArgumentException("Invalid trusted proxy address: " + value);
+            }
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(trimmed.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("Invalid trusted proxy prefix length: " + value);
+            }
+            return new Cidr(network, prefixLength);
+        }
+
+        boolean contains(InetAddress address) {
+            byte[] candidate = address.getAddress();
+            if (candidate.length != network.length) {
+                return false;
+            }
+
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (candidate[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = (0xFF << (8 - remainingBits)) & 0xFF;
+            return (candidate[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.modernbank.api_gateway.service;
+
+import com.modernbank.api_gateway.config.AdmissionControlProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sunucunun Netty event loop'larının ne kadar geciktiğini ölçer. Her loop'a {@code probe-interval} aralıkla
+ * boş bir görev planlanır; görevin planlanan zamandan ne kadar sonra çalıştığı o loop'un gecikmesidir.
+ * Bloklayan ya da CPU'yu dolduran işler bu değeri doğrudan yükseltir, bu yüzden in-flight sayısından önce
+ * aşırı yükü gösterir. {@link #lagNanos()} loop'ların son ölçümlerinin en büyüğüdür.
+ */
+@Component
+public class EventLoopLagProbe {
+
+    private final List<EventExecutor> executors = new ArrayList<>();
+
+    private final AtomicLongArray lags;
+
+    private final long intervalNanos;
+
+    private volatile boolean running;
+
+    public EventLoopLagProbe(ReactorResourceFactory resourceFactory, AdmissionControlProperties properties,
+                             MeterRegistry meterRegistry) {
+        EventLoopGroup group = resourceFactory.getLoopResources().onServer(true);
+        group.forEach(executors::add);
+        this.lags = new AtomicLongArray(executors.size());
+        this.intervalNanos = properties.getProbeInterval().toNanos();
+
+        TimeGauge.builder("gateway.event-loop.lag", this, TimeUnit.NANOSECONDS, EventLoopLagProbe::lagNanos)
+                .description("Largest scheduling delay observed on the server event loops")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < executors.size(); i++) {
+            schedule(i);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+    }
+
+    public long lagNanos() {
+        long max = 0;
+        for (int i = 0; i < lags.length(); i++) {
+            max = Math.max(max, lags.get(i));
+        }
+        return max;
+    }
+
+    private void schedule(int index) {
+        if (!running) {
+            return;
+        }
+        EventExecutor executor = executors.get(index);
+        if (executor.isShuttingDown()) {
+            return;
+        }
+        long scheduledAt = System.nanoTime();
+        executor.schedule(() -> {
+            lags.set(index, Math.max(0, System.nanoTime() - scheduledAt - intervalNanos));
+            schedule(index);
+        }, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,49 @@
+package com.modernbank.api_gateway.service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code Idempotency-Key} kayıtlarının tutulduğu yer. {@code gateway.idempotency.store} ile seçilir:
+ * {@code local} ({@link LocalIdempotencyStore}) tek node içinde, {@code redis} ({@link RedisIdempotencyStore})
+ * bütün gateway node'ları arasında geçerlidir.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Anahtar boşsa bekleme işaretini atomik olarak yazar.
+     *
+     * @return işaret yazıldıysa sahiplik token'ını taşıyan {@link Claim#owned}, aksi halde mevcut kayıt
+     * (bekleyen veya tamamlanmış)
+     */
+    Mono<Claim> claim(String key, String fingerprint);
+
+    /**
+     * Bekleme işaretini tamamlanmış cevapla değiştirir. İşaretin süresi dolup anahtar başka bir istek tarafından
+     * alındıysa o isteğin işaretine dokunmaz.
+     */
+    Mono<Void> complete(String key, String owner, IdempotentResponse response);
+
+    /**
+     * Saklanamayan bir sonuçtan sonra anahtarı bırakır; sonraki tekrar deneme isteği yeniden işler. Sadece
+     * {@code owner}'ın yazdığı işaret silinir.
+     */
+    Mono<Void> release(String key, String owner);
+
+    /**
+     * @param owner işareti yazan isteğin sahiplik token'ı; {@link #complete} ve {@link #release}'e aynen geri verilir
+     */
+    record Claim(IdempotentResponse existing, String owner) {
+
+        public static Claim owned(String owner) {
+            return new Claim(null, owner);
+        }
+
+        public static Claim existing(IdempotentResponse existing) {
+            return new Claim(existing, null);
+        }
+
+        public boolean acquired() {
+            return existing == null;
+        }
+    }
+}
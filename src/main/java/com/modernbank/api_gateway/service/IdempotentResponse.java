@@ -0,0 +1,33 @@
+package com.modernbank.api_gateway.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bir {@code Idempotency-Key} için saklanan kayıt. {@code status == 0} olan kayıt, isteğin hâlâ işlendiğini
+ * gösteren bekleme işaretidir; tamamlanan kayıt upstream'in status, header ve gövdesini taşır.
+ *
+ * @param fingerprint anahtarın ilk kullanıldığı isteğin method + path + query bilgisi; aynı anahtar farklı bir
+ *                    istek için tekrar kullanılırsa reddedilir
+ */
+public record IdempotentResponse(String fingerprint, int status, Map<String, List<String>> headers, byte[] body) {
+
+    public static IdempotentResponse pending(String fingerprint) {
+        return new IdempotentResponse(fingerprint, 0, Map.of(), new byte[0]);
+    }
+
+    public boolean isCompleted() {
+        return status != 0;
+    }
+
+    int weight() {
+        int weight = 128 + fingerprint.length() * 2 + body.length;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            weight += header.getKey().length() * 2;
+            for (String value : header.getValue()) {
+                weight += value.length() * 2;
+            }
+        }
+        return weight;
+    }
+}
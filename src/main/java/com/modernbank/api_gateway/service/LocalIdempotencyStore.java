@@ -0,0 +1,88 @@
+package com.modernbank.api_gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Süreç içi, byte boyutuna göre sınırlı idempotency store. Tamamlanan kayıtlar {@code ttl}, bekleme işaretleri
+ * {@code lock-ttl} sonunda düşer. Sadece aynı node'a gelen tekrarları yakalar.
+ *
+ * <p>Bekleme işaretlerinin ağırlığı sıfırdır: boyut sınırı sadece tamamlanan cevapları çıkarır, işlenmekte olan bir
+ * anahtarın işareti cache dolu diye düşüp aynı isteğin ikinci kez upstream'e gitmesine yol açmaz.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.idempotency.store", havingValue = "local", matchIfMissing = true)
+public class LocalIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, Entry> cache;
+
+    private final AtomicLong owners = new AtomicLong();
+
+    public LocalIdempotencyStore(@Value("${gateway.idempotency.ttl:24h}") Duration ttl,
+                                 @Value("${gateway.idempotency.lock-ttl:15s}") Duration lockTtl,
+                                 @Value("${gateway.idempotency.local.max-size:32MB}") DataSize maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Entry entry) -> entry.response().isCompleted()
+                        ? key.length() * 2 + entry.response().weight()
+                        : 0)
+                .expireAfter(new ResponseExpiry(ttl.toNanos(), lockTtl.toNanos()))
+                .build();
+    }
+
+    @Override
+    public Mono<Claim> claim(String key, String fingerprint) {
+        String owner = Long.toString(owners.incrementAndGet());
+        Entry existing = cache.asMap().putIfAbsent(key, new Entry(IdempotentResponse.pending(fingerprint), owner));
+        return Mono.just(existing == null ? Claim.owned(owner) : Claim.existing(existing.response()));
+    }
+
+    @Override
+    public Mono<Void> complete(String key, String owner, IdempotentResponse response) {
+        // İşaret süresi dolup düştüyse cevap yine saklanır; başka bir isteğin işareti ise olduğu gibi kalır
+        cache.asMap().compute(key, (k, current) -> current == null || owner.equals(current.owner())
+                ? new Entry(response, null)
+                : current);
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> release(String key, String owner) {
+        cache.asMap().computeIfPresent(key, (k, current) -> owner.equals(current.owner()) ? null : current);
+        return Mono.empty();
+    }
+
+    /**
+     * @param owner bekleme işaretini yazan isteğin token'ı; tamamlanan cevaplarda {@code null}
+     */
+    private record Entry(IdempotentResponse response, String owner) {
+    }
+
+    private record ResponseExpiry(long ttlNanos, long lockTtlNanos) implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return entry.response().isCompleted() ? ttlNanos : lockTtlNanos;
+        }
+
+        /** Bekleme işareti sadece oluşturulurken yazılır; olduğu gibi geri yazılması süresini uzatmaz */
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return entry.response().isCompleted() ? ttlNanos : currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
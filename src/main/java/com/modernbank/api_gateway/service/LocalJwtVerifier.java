@@ -0,0 +1,254 @@
+package com.modernbank.api_gateway.service;
+
+import com.modernbank.api_gateway.api.response.UserInfoResponse;
+import com.modernbank.api_gateway.exception.RemoteServiceException;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@code gateway.auth.verification.mode=local} olduğunda JWT imzasını ve süresini gateway içinde doğrular.
+ * Anahtarlar bir JWKS dokümanından veya PEM public key'den (dosya, classpath ya da URL) yüklenir ve
+ * arka planda periyodik olarak yenilenir. {@code kid}'i bilinmeyen token'lar için boş döner; bu durumda
+ * çağıran taraf authentication servisine düşer.
+ */
+@Slf4j
+@Component
+public class LocalJwtVerifier {
+
+    private final boolean enabled;
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${gateway.auth.verification.jwks-location:}")
+    private String jwksLocation;
+
+    @Value("${gateway.auth.verification.public-key-location:}")
+    private String publicKeyLocation;
+
+    @Value("${gateway.auth.verification.public-key-id:}")
+    private String publicKeyId;
+
+    @Value("${gateway.auth.verification.refresh-interval:5m}")
+    private Duration refreshInterval;
+
+    @Value("${gateway.auth.verification.clock-skew:30s}")
+    private Duration clockSkew;
+
+    @Value("${gateway.auth.verification.claims.user-id:userId}")
+    private String userIdClaim;
+
+    @Value("${gateway.auth.verification.claims.email:email}")
+    private String emailClaim;
+
+    @Value("${gateway.auth.verification.claims.authorities:authorities}")
+    private String authoritiesClaim;
+
+    private final AtomicReference<Keys> keys = new AtomicReference<>(Keys.EMPTY);
+
+    private Disposable refreshTask;
+
+    public LocalJwtVerifier(@Value("${gateway.auth.verification.mode:remote}") String mode,
+                            ResourceLoader resourceLoader) {
+        this.enabled = "local".equalsIgnoreCase(mode);
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (jwksLocation.isBlank() && publicKeyLocation.isBlank()) {
+            throw new IllegalStateException("gateway.auth.verification.mode=local requires jwks-location or public-key-location");
+        }
+
+        reload();
+        refreshTask = Flux.interval(refreshInterval, refreshInterval, Schedulers.boundedElastic())
+                .subscribe(tick -> reload());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refreshTask != null) {
+            refreshTask.dispose();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return doğrulanmış kullanıcı; token'ın {@code kid}'i yüklü anahtarlar arasında yoksa boş Mono
+     */
+    public Mono<AuthenticatedUser> verify(String token) {
+        return Mono.defer(() -> {
+            SignedJWT jwt;
+            try {
+                jwt = SignedJWT.parse(token);
+            } catch (ParseException e) {
+                return Mono.error(invalidToken("Token formatı geçersiz."));
+            }
+
+            JWSVerifier verifier = keys.get().verifierFor(jwt.getHeader().getKeyID());
+            if (verifier == null) {
+                return Mono.empty();
+            }
+
+            try {
+                if (!jwt.verify(verifier)) {
+                    return Mono.error(invalidToken("Token imzası geçersiz."));
+                }
+
+                JWTClaimsSet claims = jwt.getJWTClaimsSet();
+                Instant now = Instant.now();
+                if (claims.getExpirationTime() == null || claims.getExpirationTime().toInstant().plus(clockSkew).isBefore(now)) {
+                    return Mono.error(invalidToken("Token süresi dolmuş."));
+                }
+                if (claims.getNotBeforeTime() != null && claims.getNotBeforeTime().toInstant().minus(clockSkew).isAfter(now)) {
+                    return Mono.error(invalidToken("Token henüz geçerli değil."));
+                }
+
+                return Mono.just(new AuthenticatedUser(toUserInfo(claims), claims.getExpirationTime().toInstant()));
+            } catch (JOSEException | ParseException e) {
+                return Mono.error(invalidToken("Token doğrulanamadı."));
+            }
+        });
+    }
+
+    /**
+     * @throws ParseException email claim'i string değilse; token geçersiz sayılır
+     */
+    private UserInfoResponse toUserInfo(JWTClaimsSet claims) throws ParseException {
+        Object userId = claims.getClaim(userIdClaim);
+        return new UserInfoResponse(
+                userId != null ? userId.toString() : claims.getSubject(),
+                claims.getStringClaim(emailClaim),
+                toAuthorities(claims.getClaim(authoritiesClaim))
+        );
+    }
+
+    private List<String> toAuthorities(Object claim) {
+        if (claim instanceof Collection<?> values) {
+            return values.stream().map(Object::toString).toList();
+        }
+        if (claim instanceof String value && !value.isBlank()) {
+            return Arrays.stream(value.split("[,\\s]+")).toList();
+        }
+        return List.of();
+    }
+
+    private RemoteServiceException invalidToken(String message) {
+        return new RemoteServiceException(
+                HttpStatus.UNAUTHORIZED,
+                "BAD_CREDENTIALS_PROVIDED",
+                "Kullanıcı doğrulaması başarısız: " + message
+        );
+    }
+
+    private void reload() {
+        try {
+            List<JWK> loaded = jwksLocation.isBlank() ? loadPublicKey() : JWKSet.parse(read(jwksLocation)).getKeys();
+            keys.set(Keys.of(loaded));
+            log.info("Loaded {} JWT verification key(s)", loaded.size());
+        } catch (Exception e) {
+            // Eski anahtarlar ile devam et, bir sonraki periyotta tekrar denenecek
+            log.error("JWT verification keys could not be loaded: {}", e.getMessage());
+        }
+    }
+
+    private List<JWK> loadPublicKey() throws Exception {
+        JWK key = JWK.parseFromPEMEncodedObjects(read(publicKeyLocation));
+        if (!publicKeyId.isBlank() && key instanceof RSAKey rsa) {
+            key = new RSAKey.Builder(rsa).keyID(publicKeyId).build();
+        } else if (!publicKeyId.isBlank() && key instanceof ECKey ec) {
+            key = new ECKey.Builder(ec).keyID(publicKeyId).build();
+        }
+        return List.of(key);
+    }
+
+    private String read(String location) throws Exception {
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private record Keys(Map<String, JWSVerifier> byKid, JWSVerifier single) {
+
+        static final Keys EMPTY = new Keys(Map.of(), null);
+
+        static Keys of(List<JWK> jwks) throws JOSEException {
+            Map<String, JWSVerifier> byKid = new HashMap<>();
+            JWSVerifier single = null;
+            for (JWK jwk : jwks) {
+                JWSVerifier verifier = toVerifier(jwk);
+                if (verifier == null) {
+                    continue;
+                }
+                if (jwk.getKeyID() != null) {
+                    byKid.put(jwk.getKeyID(), verifier);
+                }
+                single = verifier;
+            }
+            // kid içermeyen token'lar sadece tek anahtar yüklüyse doğrulanabilir
+            return new Keys(Map.copyOf(byKid), jwks.size() == 1 ? single : null);
+        }
+
+        JWSVerifier verifierFor(String kid) {
+            if (kid == null) {
+                return single;
+            }
+            JWSVerifier verifier = byKid.get(kid);
+            // kid tanımlanmamış tek bir PEM anahtarı her kid için kullanılır
+            return verifier != null || !byKid.isEmpty() ? verifier : single;
+        }
+
+        private static JWSVerifier toVerifier(JWK jwk) throws JOSEException {
+            if (jwk instanceof RSAKey rsa) {
+                return new RSASSAVerifier(rsa);
+            }
+            if (jwk instanceof ECKey ec) {
+                return new ECDSAVerifier(ec);
+            }
+            if (jwk instanceof OctetSequenceKey secret) {
+                return new MACVerifier(secret);
+            }
+            return null;
+        }
+    }
+}
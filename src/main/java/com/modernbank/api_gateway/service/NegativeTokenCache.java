@@ -0,0 +1,74 @@
+package com.modernbank.api_gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.modernbank.api_gateway.exception.RemoteServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Yakın zamanda reddedilmiş token'ları kısa bir süre hatırlar; aynı geçersiz token ile döngüde tekrar
+ * deneyen istemciler authentication servisine gitmeden yerel olarak 401 alır.
+ * Red sayıları {@code auth.token.rejections{reason}} olarak yayınlanır.
+ */
+@Component
+public class NegativeTokenCache {
+
+    public enum Reason {
+        /** Token yapısal olarak geçersiz (JWT formatı, uzunluk, karakter seti) */
+        MALFORMED,
+        /** Token'ın exp süresi geçmiş */
+        EXPIRED,
+        /** Token kısa süre önce reddedilmiş, cevap negatif cache'ten verildi */
+        NEGATIVE_CACHE,
+        /** Token doğrulayıcı (authentication servisi veya local imza kontrolü) tarafından reddedildi */
+        REJECTED
+    }
+
+    private final Cache<String, String> rejectedTokens;
+
+    private final Map<Reason, Counter> rejections = new EnumMap<>(Reason.class);
+
+    public NegativeTokenCache(@Value("${gateway.auth.negative-cache.max-size:10000}") long maxSize,
+                              @Value("${gateway.auth.negative-cache.ttl:30s}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.rejectedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        for (Reason reason : Reason.values()) {
+            rejections.put(reason, Counter.builder("auth.token.rejections")
+                    .description("Bearer tokens rejected by the gateway")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return token daha önce reddedildiyse o andaki hata mesajı, aksi halde {@code null}
+     */
+    public String getIfPresent(String tokenHash) {
+        return rejectedTokens.getIfPresent(tokenHash);
+    }
+
+    public void put(String tokenHash, String processMessage) {
+        rejectedTokens.put(tokenHash, processMessage);
+    }
+
+    /**
+     * Reddi sayar ve mevcut 401 gövdesini üreten hatayı döner.
+     */
+    public RemoteServiceException reject(Reason reason, String processMessage) {
+        rejections.get(reason).increment();
+        return new RemoteServiceException(HttpStatus.UNAUTHORIZED, "BAD_CREDENTIALS_PROVIDED", processMessage);
+    }
+}
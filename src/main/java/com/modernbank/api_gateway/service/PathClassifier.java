@@ -0,0 +1,128 @@
+package com.modernbank.api_gateway.service;
+
+import com.modernbank.api_gateway.config.PathRulesProperties;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.PATH_CLASS;
+
+/**
+ * Public, websocket ve admin yol kurallarını açılışta tek bir karakter trie'sine derler ve her isteği
+ * path üzerinden tek geçişte sınıflandırır. SecurityConfiguration, SecurityContextRepository ve
+ * AuthenticationFilter aynı sonucu kullanır; sonuç exchange başına bir kez hesaplanır.
+ */
+@Component
+public class PathClassifier {
+
+    public enum PathClass {
+        PUBLIC,
+        WEBSOCKET,
+        ADMIN,
+        AUTHENTICATED;
+
+        public boolean skipsAuthentication() {
+            return this == PUBLIC || this == WEBSOCKET;
+        }
+    }
+
+    private static final int ALPHABET = 128;
+
+    /** Path başından itibaren segment sınırında eşleşen prefix kuralları (public, websocket) */
+    private final Node prefixRoot = new Node();
+
+    /** Path içinde herhangi bir '/' konumundan başlayarak eşleşen kurallar (admin) */
+    private final Node containsRoot = new Node();
+
+    public PathClassifier(PathRulesProperties rules) {
+        insert(prefixRoot, rules.getPublicPaths(), PathClass.PUBLIC);
+        insert(prefixRoot, rules.getWebsocketPaths(), PathClass.WEBSOCKET);
+        insert(containsRoot, rules.getAdminPaths(), PathClass.ADMIN);
+    }
+
+    public PathClass classify(ServerWebExchange exchange) {
+        PathClass pathClass = exchange.getAttribute(PATH_CLASS);
+        if (pathClass == null) {
+            pathClass = classify(exchange.getRequest().getURI().getPath());
+            exchange.getAttributes().put(PATH_CLASS, pathClass);
+        }
+        return pathClass;
+    }
+
+    public PathClass classify(String path) {
+        PathClass prefixMatch = matchPrefix(path);
+        if (prefixMatch != null) {
+            return prefixMatch;
+        }
+
+        for (int i = path.indexOf('/'); i >= 0; i = path.indexOf('/', i + 1)) {
+            if (matchesAt(path, i)) {
+                return PathClass.ADMIN;
+            }
+        }
+        return PathClass.AUTHENTICATED;
+    }
+
+    public ServerWebExchangeMatcher matcher(PathClass first, PathClass... rest) {
+        Set<PathClass> classes = EnumSet.of(first, rest);
+        return exchange -> classes.contains(classify(exchange))
+                ? ServerWebExchangeMatcher.MatchResult.match()
+                : ServerWebExchangeMatcher.MatchResult.notMatch();
+    }
+
+    private PathClass matchPrefix(String path) {
+        PathClass match = null;
+        Node node = prefixRoot;
+        for (int i = 0; i < path.length() && node != null; i++) {
+            char c = path.charAt(i);
+            node = c < ALPHABET ? node.children[c] : null;
+            if (node != null && node.pathClass != null && (i + 1 == path.length() || path.charAt(i + 1) == '/')) {
+                match = node.pathClass;
+            }
+        }
+        return match;
+    }
+
+    private boolean matchesAt(String path, int start) {
+        Node node = containsRoot;
+        for (int i = start; i < path.length(); i++) {
+            char c = path.charAt(i);
+            node = c < ALPHABET ? node.children[c] : null;
+            if (node == null) {
+                return false;
+            }
+            if (node.pathClass != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void insert(Node root, List<String> paths, PathClass pathClass) {
+        for (String path : paths) {
+            String normalized = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+            Node node = root;
+            for (char c : normalized.toCharArray()) {
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Path rules must be ASCII: " + path);
+                }
+                if (node.children[c] == null) {
+                    node.children[c] = new Node();
+                }
+                node = node.children[c];
+            }
+            node.pathClass = pathClass;
+        }
+    }
+
+    private static final class Node {
+
+        private final Node[] children = new Node[ALPHABET];
+
+        private PathClass pathClass;
+    }
+}
@@ -0,0 +1,78 @@
+package com.modernbank.api_gateway.service;
+
+import com.modernbank.api_gateway.util.TokenHash;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.AUTHENTICATED_USER;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Rate limit anahtarlarını istemcinin değiştiremeyeceği bilgilerden üretir. Kullanıcı boyutu client'ın gönderdiği
+ * header'dan değil, token doğrulamasının exchange'e yazdığı kullanıcıdan okunur.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitKeys {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    public enum Dimension {
+        /** Doğrulanmış kullanıcı id'si; public path'lerde ve token'sız isteklerde yoktur */
+        USER,
+        /** Güvenilen proxy kurallarına göre çözümlenen istemci IP'si */
+        IP,
+        /** Bearer token'ın SHA-256 özeti; token doğrulanmamış olabilir, tek başına değil IP ile birlikte kullanılmalıdır */
+        TOKEN,
+        /** Route id'si; route'un toplam trafiği için tek bir bucket */
+        ROUTE
+    }
+
+    private final ClientIpResolver clientIpResolver;
+
+    /**
+     * Boyutların değerlerini {@code |} ile birleştirir.
+     *
+     * @return boyutlardan biri bu istek için çözümlenemezse boş Mono
+     */
+    public Mono<String> resolve(ServerWebExchange exchange, List<Dimension> dimensions) {
+        StringBuilder key = new StringBuilder();
+        for (Dimension dimension : dimensions) {
+            String value = value(exchange, dimension);
+            if (value == null) {
+                return Mono.empty();
+            }
+            if (!key.isEmpty()) {
+                key.append('|');
+            }
+            key.append(value);
+        }
+        return Mono.just(key.toString());
+    }
+
+    public String value(ServerWebExchange exchange, Dimension dimension) {
+        return switch (dimension) {
+            case USER -> {
+                AuthenticatedUser user = exchange.getAttribute(AUTHENTICATED_USER);
+                yield user != null ? user.getUserInfo().getId() : null;
+            }
+            case IP -> clientIpResolver.resolve(exchange.getRequest());
+            case TOKEN -> {
+                String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+                yield authorization != null && authorization.startsWith(BEARER_PREFIX)
+                        ? TokenHash.of(authorization.substring(BEARER_PREFIX.length()))
+                        : null;
+            }
+            case ROUTE -> {
+                Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+                yield route != null ? route.getId() : null;
+            }
+        };
+    }
+}
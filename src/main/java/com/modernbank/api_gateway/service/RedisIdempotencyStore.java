@@ -0,0 +1,131 @@
+package com.modernbank.api_gateway.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Gateway node'ları arasında paylaşılan idempotency store. Bekleme işareti {@code SET NX PX lock-ttl} ile yazılır,
+ * böylece farklı node'lara düşen tekrarlar da aynı anahtarı ikinci kez upstream'e göndermez. İşaret, onu yazan isteğe
+ * özgü bir {@code owner} alanı taşır ve sahiplik token'ı olarak işaretin kendisi kullanılır: {@code complete} ve
+ * {@code release} Lua script'leriyle sadece değer hâlâ bu işaretse yazar / siler. Böylece {@code lock-ttl}'i aşan bir
+ * istek, anahtarı bu arada almış başka bir isteğin işaretini silmez.
+ *
+ * <p>Redis'e erişilemezse hata loglanır ve istek idempotency koruması olmadan upstream'e iletilir.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gateway.idempotency.store", havingValue = "redis")
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /** KEYS: [anahtar]; ARGV: [bekleme işareti]. Değer hâlâ işaretse siler. */
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    /** KEYS: [anahtar]; ARGV: [bekleme işareti, cevap, ttl ms]. Değer hâlâ işaretse ya da süresi dolmuşsa yazar. */
+    private static final RedisScript<Long> COMPLETE_SCRIPT = RedisScript.of("""
+            local current = redis.call('GET', KEYS[1])
+            if current == false or current == ARGV[1] then
+              redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+              return 1
+            end
+            return 0
+            """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    private final Duration ttl;
+
+    private final Duration lockTtl;
+
+    private final String keyPrefix;
+
+    public RedisIdempotencyStore(ReactiveStringRedisTemplate redisTemplate,
+                                 @Value("${gateway.idempotency.ttl:24h}") Duration ttl,
+                                 @Value("${gateway.idempotency.lock-ttl:15s}") Duration lockTtl,
+                                 @Value("${gateway.idempotency.redis.key-prefix:gateway:idempotency:}") String keyPrefix) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.lockTtl = lockTtl;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public Mono<Claim> claim(String key, String fingerprint) {
+        String redisKey = keyPrefix + key;
+        String marker = pendingMarker(fingerprint);
+        return redisTemplate.opsForValue().setIfAbsent(redisKey, marker, lockTtl)
+                .flatMap(acquired -> acquired
+                        ? Mono.just(Claim.owned(marker))
+                        // İşaret SET ile GET arasında süresi dolup silindiyse tekrar denenir
+                        : redisTemplate.opsForValue().get(redisKey)
+                        .map(json -> Claim.existing(deserialize(json)))
+                        .switchIfEmpty(Mono.defer(() -> claim(key, fingerprint))))
+                .onErrorResume(e -> {
+                    log.warn("Idempotency claim failed, forwarding without protection: {}", e.getMessage());
+                    return Mono.just(Claim.owned(marker));
+                });
+    }
+
+    @Override
+    public Mono<Void> complete(String key, String owner, IdempotentResponse response) {
+        return redisTemplate.execute(COMPLETE_SCRIPT, List.of(keyPrefix + key),
+                        List.of(owner, serialize(response), Long.toString(ttl.toMillis())))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Idempotent response could not be stored: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<Void> release(String key, String owner) {
+        return redisTemplate.execute(RELEASE_SCRIPT, List.of(keyPrefix + key), List.of(owner))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Idempotency key could not be released: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /** Okuyan taraf {@code owner} alanını bilinmeyen alan olarak yok sayar */
+    private String pendingMarker(String fingerprint) {
+        ObjectNode marker = OBJECT_MAPPER.valueToTree(IdempotentResponse.pending(fingerprint));
+        marker.put("owner", UUID.randomUUID().toString());
+        return marker.toString();
+    }
+
+    private String serialize(IdempotentResponse response) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(response);
+        } catch (Exception e) {
+            throw new IllegalStateException("Idempotent response could not be serialized", e);
+        }
+    }
+
+    private IdempotentResponse deserialize(String json) {
+        try {
+            return OBJECT_MAPPER.readValue(json, IdempotentResponse.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Idempotent response could not be deserialized", e);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.modernbank.api_gateway.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modernbank.api_gateway.api.response.UserInfoResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Yerel {@link TokenCache}'in arkasında, gateway replikaları arasında paylaşılan Redis katmanı.
+ * Soğuk bir node, authentication servisine gitmek yerine kaydı tek bir {@code GET} ile Redis'ten alır.
+ *
+ * <p>Revocation kanalına yayınlanan mesajlar tüm node'larda yerel cache'i temizler:
+ * {@code token:<tokenHash>} tek bir token'ı, {@code user:<userId>} kullanıcının bütün token'larını düşürür.
+ * Authentication servisi de aynı kanala yayın yaparak logout / revoke bildirebilir.
+ *
+ * <p>Redis'e erişilemezse hatalar loglanır ve doğrulama normal akışla devam eder.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gateway.auth.cache.redis.enabled", havingValue = "true")
+public class RedisTokenCache {
+
+    private static final String TOKEN_PREFIX = "token:";
+
+    private static final String USER_PREFIX = "user:";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    private final ReactiveRedisConnectionFactory connectionFactory;
+
+    private final TokenCache tokenCache;
+
+    @Value("${gateway.auth.cache.redis.key-prefix:gateway:auth:}")
+    private String keyPrefix;
+
+    @Value("${gateway.auth.cache.redis.revocation-channel:gateway:auth:revocations}")
+    private String revocationChannel;
+
+    private Disposable subscription;
+
+    public RedisTokenCache(ReactiveStringRedisTemplate redisTemplate,
+                           ReactiveRedisConnectionFactory connectionFactory,
+                           TokenCache tokenCache) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.tokenCache = tokenCache;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        // Redis yeniden başlatılsa (veya açılışta erişilemese) bile kanal dinlenmeye devam etsin
+        subscription = Flux.usingWhen(
+                        Mono.fromCallable(() -> new ReactiveRedisMessageListenerContainer(connectionFactory)),
+                        container -> container.receive(ChannelTopic.of(revocationChannel)),
+                        ReactiveRedisMessageListenerContainer::destroyLater)
+                .doOnNext(message -> onRevocation(message.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Token revocation channel subscription failed: {}", signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    public Mono<AuthenticatedUser> get(String tokenHash) {
+        return redisTemplate.opsForValue().get(tokenKey(tokenHash))
+                .map(this::deserialize)
+                .onErrorResume(e -> {
+                    log.warn("Redis token cache read failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Kaydı arka planda yazar, isteği Redis'i beklemeye zorlamaz.
+     */
+    public void put(String tokenHash, AuthenticatedUser user) {
+        Duration ttl = tokenCache.remainingTtl(user);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+
+        String userKey = userKey(user.getUserInfo().getId());
+        redisTemplate.opsForValue().set(tokenKey(tokenHash), serialize(user), ttl)
+                .then(redisTemplate.opsForSet().add(userKey, tokenHash))
+                .then(redisTemplate.expire(userKey, tokenCache.getMaxTtl()))
+                .subscribe(null, e -> log.warn("Redis token cache write failed: {}", e.getMessage()));
+    }
+
+    public Mono<Void> revokeToken(String tokenHash) {
+        return redisTemplate.delete(tokenKey(tokenHash))
+                .then(redisTemplate.convertAndSend(revocationChannel, TOKEN_PREFIX + tokenHash))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Token revocation could not be published: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Void> revokeUser(String userId) {
+        String userKey = userKey(userId);
+        return redisTemplate.opsForSet().members(userKey)
+                .flatMap(tokenHash -> redisTemplate.delete(tokenKey(tokenHash)))
+                .then(redisTemplate.delete(userKey))
+                .then(redisTemplate.convertAndSend(revocationChannel, USER_PREFIX + userId))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("User revocation could not be published: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void onRevocation(String message) {
+        if (message.startsWith(TOKEN_PREFIX)) {
+            tokenCache.invalidate(message.substring(TOKEN_PREFIX.length()));
+        } else if (message.startsWith(USER_PREFIX)) {
+            tokenCache.invalidateUser(message.substring(USER_PREFIX.length()));
+        } else {
+            log.warn("Unknown token revocation message: {}", message);
+        }
+    }
+
+    private String tokenKey(String tokenHash) {
+        return keyPrefix + TOKEN_PREFIX + tokenHash;
+    }
+
+    private String userKey(String userId) {
+        return keyPrefix + USER_PREFIX + userId;
+    }
+
+    private String serialize(AuthenticatedUser user) {
+        try {
+            Long expiresAt = user.getExpiresAt() != null ? user.getExpiresAt().getEpochSecond() : null;
+            return OBJECT_MAPPER.writeValueAsString(new Entry(user.getUserInfo(), expiresAt));
+        } catch (Exception e) {
+            throw new IllegalStateException("Token cache entry could not be serialized", e);
+        }
+    }
+
+    private AuthenticatedUser deserialize(String json) {
+        try {
+            Entry entry = OBJECT_MAPPER.readValue(json, Entry.class);
+            Instant expiresAt = entry.expiresAt() != null ? Instant.ofEpochSecond(entry.expiresAt()) : null;
+            return new AuthenticatedUser(entry.userInfo(), expiresAt);
+        } catch (Exception e) {
+            throw new IllegalStateException("Token cache entry could not be deserialized", e);
+        }
+    }
+
+    private record Entry(UserInfoResponse userInfo, Long expiresAt) {
+    }
+}
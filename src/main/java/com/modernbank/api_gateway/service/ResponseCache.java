@@ -0,0 +1,253 @@
+package com.modernbank.api_gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Upstream GET cevaplarının byte boyutuna göre sınırlı cache'i. Kayıtlar kullanıcı bazında tutulur
+ * (anahtarda kullanıcı id'si vardır), bu yüzden {@code Cache-Control: private} cevaplar da saklanabilir.
+ *
+ * <p>Tazelik upstream'in {@code Cache-Control: max-age} (yoksa {@code Expires}) değerinden hesaplanır.
+ * {@code ETag} veya {@code Last-Modified} taşıyan kayıtlar tazeliği bittikten sonra {@code revalidation-window}
+ * boyunca daha tutulur ve upstream'e koşullu istekle doğrulatılır. Toplam boyut {@code max-size} ile sınırlıdır;
+ * dolduğunda Caffeine kayıtları gövde boyutuna göre çıkarır. {@code Content-Encoding} taşıyan ya da
+ * {@code Vary: Accept-Encoding} ile encoding'e göre değişen cevaplar saklanmaz.
+ */
+@Component
+public class ResponseCache {
+
+    /** Saklanmayan hop-by-hop header'lar */
+    private static final Set<String> HOP_BY_HOP = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade",
+            "proxy-authenticate", "proxy-authorization", "content-length");
+
+    /**
+     * CORS işlemcisinin her cevaba eklediği Vary değerleri; cache anahtarını etkilemez. {@code Accept-Encoding} burada
+     * değildir: anahtarda encoding olmadığı için encoding'e göre değişen cevaplar saklanmaz.
+     */
+    private static final Set<String> IGNORED_VARY = Set.of(
+            "origin", "access-control-request-method", "access-control-request-headers");
+
+    /** Kayıt başına sabit maliyet (nesneler, anahtar) için yaklaşık byte */
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final Cache<String, Entry> cache;
+
+    private final long maxEntryBytes;
+
+    private final long revalidationWindowNanos;
+
+    public ResponseCache(@Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize,
+                         @Value("${gateway.response-cache.max-entry-size:1MB}") DataSize maxEntrySize,
+                         @Value("${gateway.response-cache.revalidation-window:5m}") Duration revalidationWindow,
+                         MeterRegistry meterRegistry) {
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.revalidationWindowNanos = revalidationWindow.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Entry entry) -> key.length() * 2 + entry.weight())
+                .expireAfter(new EntryExpiry())
+                .build();
+
+        Gauge.builder("gateway.response-cache.size", cache,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .description("Approximate bytes held by the response cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("gateway.response-cache.entries", cache, Cache::estimatedSize)
+                .description("Responses held by the response cache")
+                .register(meterRegistry);
+    }
+
+    public static String key(String routeId, String pathAndQuery, String userId) {
+        return routeId + '\n' + userId + '\n' + pathAndQuery;
+    }
+
+    public Entry get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, Entry entry) {
+        cache.put(key, entry);
+    }
+
+    public long getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    /**
+     * Cevabın saklanabilirliğini upstream header'larına göre kontrol eder; gövde daha okunmadan çağrılır.
+     *
+     * @return saklanabiliyorsa tazelik süresi (saniye, {@code 0} = her kullanımda doğrulat), aksi halde {@code -1}
+     */
+    public static long storableFreshness(HttpStatusCode status, HttpHeaders headers) {
+        if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return -1;
+        }
+        // Sıkıştırılmış gövde, Accept-Encoding göndermeyen bir istemciye de dönebilirdi; istemciye göre
+        // sıkıştırma zaten gateway'in ResponseCompressionFilter'ında yapılır
+        String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding != null && !contentEncoding.equalsIgnoreCase("identity")) {
+            return -1;
+        }
+        for (String vary : headers.getVary()) {
+            if (vary.equals("*") || !IGNORED_VARY.contains(vary.toLowerCase(Locale.ROOT))) {
+                return -1;
+            }
+        }
+        long freshness = freshness(headers);
+        boolean hasValidator = headers.getETag() != null || headers.getFirst(HttpHeaders.LAST_MODIFIED) != null;
+        if (freshness < 0 || (freshness == 0 && !hasValidator)) {
+            return -1;
+        }
+        return freshness;
+    }
+
+    /**
+     * @return {@code Cache-Control} / {@code Expires}'tan tazelik (saniye); {@code no-store} veya bilgi yoksa {@code -1}
+     */
+    static long freshness(HttpHeaders headers) {
+        List<String> cacheControl = headers.get(HttpHeaders.CACHE_CONTROL);
+        long maxAge = -1;
+        if (cacheControl != null) {
+            for (String value : cacheControl) {
+                for (String directive : value.split(",")) {
+                    String d = directive.trim().toLowerCase(Locale.ROOT);
+                    if (d.equals("no-store")) {
+                        return -1;
+                    }
+                    if (d.equals("no-cache")) {
+                        maxAge = 0;
+                    } else if (d.startsWith("max-age=") && maxAge != 0) {
+                        try {
+                            maxAge = Long.parseLong(d.substring("max-age=".length()).replace("\"", ""));
+                        } catch (NumberFormatException e) {
+                            return -1;
+                        }
+                    }
+                }
+            }
+        }
+        if (maxAge >= 0) {
+            return maxAge;
+        }
+
+        long expires = headers.getExpires();
+        if (expires > 0) {
+            long date = headers.getDate();
+            long now = date > 0 ? date : System.currentTimeMillis();
+            return Math.max(0, (expires - now) / 1000);
+        }
+        return -1;
+    }
+
+    /**
+     * Upstream header'larından saklanacak olanları seçer. Sadece upstream'den gelen header adları
+     * ({@code names}) alınır; CORS gibi gateway'in kendi eklediği header'lar kayda girmez.
+     */
+    public static HttpHeaders storedHeaders(HttpHeaders responseHeaders, Set<String> names) {
+        HttpHeaders stored = new HttpHeaders();
+        for (String name : names) {
+            List<String> values = responseHeaders.get(name);
+            if (values != null && !HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT))) {
+                stored.put(name, List.copyOf(values));
+            }
+        }
+        return stored;
+    }
+
+    public Entry newEntry(HttpHeaders headers, byte[] body, long freshnessSeconds) {
+        long now = System.nanoTime();
+        return new Entry(HttpHeaders.readOnlyHttpHeaders(headers), body, now,
+                now + Duration.ofSeconds(freshnessSeconds).toNanos(), revalidationWindowNanos);
+    }
+
+    /**
+     * 304 ile doğrulanan kaydı, 304'te gelen header'larla güncellenmiş ve tazeliği yenilenmiş olarak döner.
+     */
+    public Entry revalidated(Entry entry, HttpHeaders notModifiedHeaders, Set<String> names) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(entry.headers());
+        headers.putAll(storedHeaders(notModifiedHeaders, names));
+
+        long freshness = freshness(headers);
+        return newEntry(headers, entry.body(), Math.max(freshness, 0));
+    }
+
+    /**
+     * @param headers        upstream'den saklanan header'lar (read-only)
+     * @param body           gövde; cevap yazılırken kopyalanmadan sarılır, bu yüzden değiştirilmemelidir
+     * @param freshUntilNanos {@link System#nanoTime()} cinsinden tazeliğin bittiği an
+     */
+    public record Entry(HttpHeaders headers, byte[] body, long storedAtNanos, long freshUntilNanos,
+                        long revalidationWindowNanos) {
+
+        public boolean isFresh(long nowNanos) {
+            return nowNanos - freshUntilNanos < 0;
+        }
+
+        public String etag() {
+            return headers.getETag();
+        }
+
+        public String lastModified() {
+            return headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        }
+
+        public boolean hasValidators() {
+            return etag() != null || lastModified() != null;
+        }
+
+        public long ageSeconds(long nowNanos) {
+            return Duration.ofNanos(nowNanos - storedAtNanos).toSeconds();
+        }
+
+        int weight() {
+            int weight = ENTRY_OVERHEAD + body.length;
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                weight += header.getKey().length() * 2;
+                for (String value : header.getValue()) {
+                    weight += value.length() * 2;
+                }
+            }
+            return weight;
+        }
+    }
+
+    private static class EntryExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            long ttl = entry.freshUntilNanos() - System.nanoTime();
+            if (entry.hasValidators()) {
+                ttl += entry.revalidationWindowNanos();
+            }
+            return Math.max(ttl, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.modernbank.api_gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Token hash'inden doğrulanmış kullanıcıya giden süreli ve boyut sınırlı cache.
+ * Her kayıt token'ın kendi {@code exp} süresinde ya da {@code max-ttl} sonunda (hangisi önceyse) düşer.
+ * Hit / miss / eviction sayaçları {@code auth.token.cache} adıyla Micrometer'a yayınlanır.
+ */
+@Component
+public class TokenCache {
+
+    private final boolean enabled;
+
+    private final Duration maxTtl;
+
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public TokenCache(@Value("${gateway.auth.cache.enabled:true}") boolean enabled,
+                      @Value("${gateway.auth.cache.max-size:10000}") long maxSize,
+                      @Value("${gateway.auth.cache.max-ttl:5m}") Duration maxTtl,
+                      MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxTtl = maxTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.token.cache");
+    }
+
+    public AuthenticatedUser get(String tokenHash) {
+        return enabled ? cache.getIfPresent(tokenHash) : null;
+    }
+
+    public void put(String tokenHash, AuthenticatedUser user) {
+        if (enabled && ttlOf(user) > 0) {
+            cache.put(tokenHash, user);
+        }
+    }
+
+    public void invalidate(String tokenHash) {
+        cache.invalidate(tokenHash);
+    }
+
+    /**
+     * Kullanıcının bütün token'larını düşürür. Tüm cache'i taradığı için sadece logout / revoke gibi
+     * seyrek olaylarda kullanılmalıdır.
+     */
+    public void invalidateUser(String userId) {
+        cache.asMap().values().removeIf(user -> userId.equals(user.getUserInfo().getId()));
+    }
+
+    public Duration remainingTtl(AuthenticatedUser user) {
+        return Duration.ofNanos(ttlOf(user));
+    }
+
+    public Duration getMaxTtl() {
+        return maxTtl;
+    }
+
+    private long ttlOf(AuthenticatedUser user) {
+        long ttl = maxTtl.toNanos();
+        Instant expiresAt = user.getExpiresAt();
+        if (expiresAt != null) {
+            ttl = Math.min(ttl, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+        return ttl;
+    }
+
+    private class TokenExpiry implements Expiry<String, AuthenticatedUser> {
+
+        @Override
+        public long expireAfterCreate(String key, AuthenticatedUser value, long currentTime) {
+            return Math.max(ttlOf(value), 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, AuthenticatedUser value, long currentTime, long currentDuration) {
+            return Math.max(ttlOf(value), 0);
+        }
+
+        @Override
+        public long expireAfterRead(String key, AuthenticatedUser value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
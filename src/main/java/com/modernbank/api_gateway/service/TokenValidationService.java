@@ -0,0 +1,230 @@
+package com.modernbank.api_gateway.service;
+
+import com.modernbank.api_gateway.api.response.UserInfoResponse;
+import com.modernbank.api_gateway.exception.RemoteServiceException;
+import com.modernbank.api_gateway.util.InFlightRegistry;
+import com.modernbank.api_gateway.util.JwtPayloads;
+import com.modernbank.api_gateway.util.TokenHash;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.AUTHENTICATED_USER;
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.TOKEN_VALIDATION;
+import static com.modernbank.api_gateway.service.NegativeTokenCache.Reason.EXPIRED;
+import static com.modernbank.api_gateway.service.NegativeTokenCache.Reason.MALFORMED;
+import static com.modernbank.api_gateway.service.NegativeTokenCache.Reason.NEGATIVE_CACHE;
+import static com.modernbank.api_gateway.service.NegativeTokenCache.Reason.REJECTED;
+
+@Service
+public class TokenValidationService {
+
+    private final WebClient authServiceWebClient;
+
+    private final TokenCache tokenCache;
+
+    private final LocalJwtVerifier localJwtVerifier;
+
+    private final RedisTokenCache redisTokenCache;
+
+    private final NegativeTokenCache negativeTokenCache;
+
+    private final InFlightRegistry<AuthenticatedUser> inFlightValidations;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gateway.auth.precheck.require-jwt-format:true}")
+    private boolean requireJwtFormat;
+
+    @Value("${gateway.auth.precheck.max-token-length:8192}")
+    private int maxTokenLength;
+
+    /** LocalJwtVerifier ile aynı tolerans; tam doğrulamanın kabul edeceği token ön kontrolde reddedilmez */
+    @Value("${gateway.auth.verification.clock-skew:30s}")
+    private Duration clockSkew;
+
+    public TokenValidationService(WebClient authServiceWebClient,
+                                  TokenCache tokenCache,
+                                  LocalJwtVerifier localJwtVerifier,
+                                  ObjectProvider<RedisTokenCache> redisTokenCache,
+                                  NegativeTokenCache negativeTokenCache,
+                                  MeterRegistry meterRegistry) {
+        this.authServiceWebClient = authServiceWebClient;
+        this.tokenCache = tokenCache;
+        this.localJwtVerifier = localJwtVerifier;
+        this.redisTokenCache = redisTokenCache.getIfAvailable();
+        this.negativeTokenCache = negativeTokenCache;
+        this.inFlightValidations = new InFlightRegistry<>(meterRegistry, "auth.token.validation");
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Exchange başına tek doğrulama yapar. İlk çağrı (security katmanı ya da gateway filtresi) doğrulamayı
+     * başlatır ve sonucu exchange attribute'u olarak saklar; sonraki çağrılar aynı sonucu tekrar kullanır.
+     * Süre exchange başına bir kez {@code gateway.auth.validation.duration{outcome}} timer'ına yazılır.
+     */
+    public Mono<AuthenticatedUser> validate(ServerWebExchange exchange, String token) {
+        Mono<AuthenticatedUser> validation = exchange.getAttribute(TOKEN_VALIDATION);
+        if (validation == null) {
+            validation = Mono.defer(() -> {
+                        Timer.Sample sample = Timer.start(meterRegistry);
+                        return validate(token)
+                                .doOnSuccess(user -> sample.stop(validationTimer("success")))
+                                .doOnError(e -> sample.stop(validationTimer(isRejection(e) ? "rejected" : "error")));
+                    })
+                    .doOnNext(user -> exchange.getAttributes().put(AUTHENTICATED_USER, user))
+                    .cache();
+            exchange.getAttributes().put(TOKEN_VALIDATION, validation);
+        }
+        return validation;
+    }
+
+    /**
+     * Token'ı doğrular. Cache'te geçerli bir kayıt varsa authentication servisine hiç gidilmez,
+     * yoksa doğrulama sonucu token'ın süresi boyunca cache'lenir. Local doğrulama modunda imza
+     * gateway içinde kontrol edilir; sadece {@code kid}'i bilinmeyen token'lar uzak servise sorulur.
+     * Aynı token için eşzamanlı gelen cache miss'ler tek bir doğrulama çağrısını paylaşır.
+     * Redis katmanı açıksa yerel miss önce Redis'e sorulur.
+     *
+     * <p>Yapısal olarak bozuk, süresi (clock skew toleransıyla) geçmiş veya kısa süre önce reddedilmiş token'lar
+     * hiçbir ağ çağrısı yapılmadan 401 ile reddedilir.
+     */
+    public Mono<AuthenticatedUser> validate(String token) {
+        if (requireJwtFormat && !isWellFormedJwt(token)) {
+            return Mono.error(negativeTokenCache.reject(MALFORMED, "Kullanıcı doğrulaması başarısız: Token formatı geçersiz."));
+        }
+
+        String tokenHash = TokenHash.of(token);
+
+        AuthenticatedUser cached = tokenCache.get(tokenHash);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        String rejectedMessage = negativeTokenCache.getIfPresent(tokenHash);
+        if (rejectedMessage != null) {
+            return Mono.error(negativeTokenCache.reject(NEGATIVE_CACHE, rejectedMessage));
+        }
+
+        Instant expiresAt = JwtPayloads.expiresAt(token);
+        if (expiresAt != null && expiresAt.plus(clockSkew).isBefore(Instant.now())) {
+            return Mono.error(negativeTokenCache.reject(EXPIRED, "Kullanıcı doğrulaması başarısız: Token süresi dolmuş."));
+        }
+
+        Mono<AuthenticatedUser> remote = Mono.defer(() -> fetchUserInfo(token))
+                .map(userInfo -> new AuthenticatedUser(userInfo, expiresAt));
+
+        Mono<AuthenticatedUser> validation = localJwtVerifier.isEnabled()
+                ? localJwtVerifier.verify(token).switchIfEmpty(remote)
+                : remote;
+
+        Mono<AuthenticatedUser> loader = redisTokenCache == null
+                ? validation
+                : redisTokenCache.get(tokenHash)
+                        .switchIfEmpty(validation.doOnNext(user -> redisTokenCache.put(tokenHash, user)));
+
+        return inFlightValidations.join(tokenHash, () -> loader
+                .doOnNext(user -> tokenCache.put(tokenHash, user))
+                .onErrorMap(RemoteServiceException.class, e -> {
+                    if (e.getStatus() != HttpStatus.UNAUTHORIZED) {
+                        return e;
+                    }
+                    negativeTokenCache.put(tokenHash, e.getMessage());
+                    return negativeTokenCache.reject(REJECTED, e.getMessage());
+                }));
+    }
+
+    /**
+     * Token'ı bu node'un cache'inden düşürür; Redis katmanı açıksa diğer node'lara da revocation yayınlar.
+     */
+    public Mono<Void> revoke(String token) {
+        String tokenHash = TokenHash.of(token);
+        tokenCache.invalidate(tokenHash);
+        return redisTokenCache != null ? redisTokenCache.revokeToken(tokenHash) : Mono.empty();
+    }
+
+    /**
+     * Kullanıcının bütün token'larını bu node'un cache'inden düşürür; Redis katmanı açıksa paylaşılan kayıtları
+     * silip diğer node'lara da revocation yayınlar.
+     */
+    public Mono<Void> revokeUser(String userId) {
+        tokenCache.invalidateUser(userId);
+        return redisTokenCache != null ? redisTokenCache.revokeUser(userId) : Mono.empty();
+    }
+
+    private Timer validationTimer(String outcome) {
+        return Timer.builder("gateway.auth.validation.duration")
+                .description("Bearer token validation latency per request")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private boolean isRejection(Throwable e) {
+        return e instanceof RemoteServiceException rse && rse.getStatus() == HttpStatus.UNAUTHORIZED;
+    }
+
+    /**
+     * Ağ çağrısı yapmadan önce yapılan ucuz kontrol: boş olmayan üç base64url parçası.
+     */
+    private boolean isWellFormedJwt(String token) {
+        if (token.isEmpty() || token.length() > maxTokenLength) {
+            return false;
+        }
+
+        int dots = 0;
+        char previous = '.';
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (previous == '.' || ++dots > 2) {
+                    return false;
+                }
+            } else if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-' || c == '_')) {
+                return false;
+            }
+            previous = c;
+        }
+        return dots == 2 && previous != '.';
+    }
+
+    private Mono<UserInfoResponse> fetchUserInfo(String token) {
+        // AuthenticationService’e doğrulama isteği gönder
+        return authServiceWebClient
+                .get()
+                .uri("/authentication/validate?token={token}", token)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .retrieve()
+                // Sadece 401 / 403 token'ın reddedildiği anlamına gelir ve negatif cache'e yazılır; 429, 404 gibi diğer
+                // 4xx cevaplar servis tarafı bir sorundur, token'ı kilitlememek için 5xx gibi cache'lenmeden iletilir
+                .onStatus(status -> status.value() == 401 || status.value() == 403, resp ->
+                        resp.bodyToMono(String.class).defaultIfEmpty("").flatMap(body ->
+                                Mono.error(new RemoteServiceException(
+                                        HttpStatus.UNAUTHORIZED,
+                                        "BAD_CREDENTIALS_PROVIDED",
+                                        "Kullanıcı doğrulaması başarısız: " + body
+                                ))
+                        )
+                )
+                .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(), resp ->
+                        resp.bodyToMono(String.class).defaultIfEmpty("").flatMap(body ->
+                                Mono.error(new RemoteServiceException(
+                                        HttpStatus.BAD_GATEWAY,
+                                        "AUTH_SERVICE_UNAVAILABLE",
+                                        "Kimlik doğrulama servisine ulaşılamıyor."
+                                ))
+                        )
+                )
+                .bodyToMono(UserInfoResponse.class);
+    }
+}
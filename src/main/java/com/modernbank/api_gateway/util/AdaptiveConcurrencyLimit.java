@@ -0,0 +1,113 @@
+package com.modernbank.api_gateway.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bir route için gözlenen gecikmeye göre ayarlanan eşzamanlı istek sınırı (AIMD).
+ *
+ * <ul>
+ *     <li>Bir istek hatayla / 502-504 ile biterse ya da gecikmesi uzun dönem ortalamanın {@code latencyTolerance}
+ *     katını veya {@code maxLatency}'yi aşarsa limit {@code backoffRatio} ile çarpılır. Aynı yavaşlamaya ait
+ *     örneklerin limiti art arda düşürmemesi için azaltma en fazla ortalama gecikme başına bir kez yapılır.</li>
+ *     <li>Diğer isteklerde, başladığında limitin en az yarısı kullanılıyorduysa limit bir artırılır; boşta duran
+ *     bir route'un limiti gereksiz yere büyümez.</li>
+ * </ul>
+ *
+ * <p>{@link #tryAcquire()} kilitsizdir; limit güncellemesi istek tamamlandığında kısa bir kilit altında yapılır.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    /** Uzun dönem gecikme ortalamasının (EWMA) ağırlığı, yaklaşık son 50 örnek */
+    private static final double RTT_SMOOTHING = 0.02;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double backoffRatio;
+
+    private final double latencyTolerance;
+
+    private final long maxLatencyNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    private double exactLimit;
+
+    private double averageRttNanos;
+
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                    double latencyTolerance, long maxLatencyNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.maxLatencyNanos = maxLatencyNanos;
+        this.exactLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) exactLimit;
+    }
+
+    /**
+     * @return isteğin başladığı andaki eşzamanlı istek sayısı; limit doluysa {@code -1}
+     */
+    public int tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            return -1;
+        }
+        return current;
+    }
+
+    /**
+     * Tamamlanan isteği bırakır ve limiti günceller.
+     *
+     * @param inFlightAtStart {@link #tryAcquire()}'ın döndüğü değer
+     * @param dropped         istek hatayla ya da upstream'in aşırı yüklendiğini gösteren bir status ile bitti
+     */
+    public void release(long rttNanos, boolean dropped, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        onSample(rttNanos, dropped, inFlightAtStart, System.nanoTime());
+    }
+
+    /**
+     * İstemci vazgeçtiğinde olduğu gibi, gecikmesi anlamlı olmayan isteği limiti değiştirmeden bırakır.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    synchronized void onSample(long rttNanos, boolean dropped, int inFlightAtStart, long nowNanos) {
+        boolean slow = dropped
+                || rttNanos > maxLatencyNanos
+                || (averageRttNanos > 0 && rttNanos > latencyTolerance * averageRttNanos);
+
+        if (!dropped) {
+            averageRttNanos = averageRttNanos == 0
+                    ? rttNanos
+                    : averageRttNanos + (rttNanos - averageRttNanos) * RTT_SMOOTHING;
+        }
+
+        if (slow) {
+            if (nowNanos - lastDecreaseNanos >= (long) averageRttNanos) {
+                exactLimit = Math.max(minLimit, exactLimit * backoffRatio);
+                lastDecreaseNanos = nowNanos;
+            }
+        } else if (inFlightAtStart * 2 >= exactLimit) {
+            exactLimit = Math.min(maxLimit, exactLimit + 1);
+        }
+        limit = (int) exactLimit;
+    }
+}
@@ -0,0 +1,48 @@
+package com.modernbank.api_gateway.util;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * İstemciye akan cevap buffer'larını tüketmeden (okuma pozisyonunu değiştirmeden) tek bir diziye kopyalar.
+ * {@code maxBytes}'ı aşan gövdeler bırakılır; {@link #toByteArray()} bu durumda {@code null} döner.
+ * Tek bir cevap akışına aittir, thread-safe değildir.
+ */
+public final class BodyCapture {
+
+    private final long maxBytes;
+
+    private byte[] bytes;
+
+    private int size;
+
+    private boolean overflow;
+
+    public BodyCapture(long maxBytes, long contentLength) {
+        this.maxBytes = maxBytes;
+        this.bytes = new byte[(int) Math.min(maxBytes, contentLength > 0 ? contentLength : 4096)];
+    }
+
+    public void append(DataBuffer buffer) {
+        int readable = buffer.readableByteCount();
+        if (overflow || size + (long) readable > maxBytes) {
+            overflow = true;
+            bytes = null;
+            return;
+        }
+        if (size + readable > bytes.length) {
+            bytes = Arrays.copyOf(bytes, (int) Math.min(maxBytes, Math.max(bytes.length * 2L, size + (long) readable)));
+        }
+        buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), size, readable);
+        size += readable;
+    }
+
+    public byte[] toByteArray() {
+        if (overflow) {
+            return null;
+        }
+        return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+    }
+}
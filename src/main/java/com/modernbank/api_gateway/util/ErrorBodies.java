@@ -0,0 +1,211 @@
+package com.modernbank.api_gateway.util;
+
+import com.modernbank.api_gateway.util.StreamingCompressor.Encoding;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.Deflater;
+
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.RESPONSE_ENCODING;
+
+/**
+ * Gateway'in kendi ürettiği hata gövdeleri. Sabit gövdeler sınıf yüklenirken bir kez byte'a çevrilip sabit olarak
+ * tutulur; istek başına sadece path ve timestamp gibi değişken alanlar araya eklenir. Jackson / {@code String.format}
+ * kullanılmaz.
+ *
+ * <ul>
+ *     <li>{@link #baseResponse}: {@code BaseResponse} formatındaki FAILED gövdesi; upstream hata metni gibi dinamik
+ *     mesajlar istek başına kodlanır, cache'lenmez</li>
+ *     <li>{@link #UNAUTHORIZED} / {@link #FORBIDDEN}: security entry point'lerinin gövdesi (timestamp + path)</li>
+ *     <li>{@link #ADMIN_NOT_FOUND}: admin path'lerine yetkisiz erişimde dönülen sabit 404 gövdesi</li>
+ * </ul>
+ *
+ * <p>Sabit gövdeler {@link FixedBody} olarak gzip halleriyle birlikte açılışta bir kez üretilir; istemci gzip kabul
+ * ediyorsa {@link #write(ServerWebExchange, HttpStatus, FixedBody)} onu yazar. Dinamik gövdeler istek başına
+ * sıkıştırılmaz, olduğu gibi yazılır.
+ */
+public final class ErrorBodies {
+
+    public static final Template UNAUTHORIZED = new Template(401, "Unauthorized", "Erişim reddedildi: Geçersiz veya eksik token.");
+
+    public static final Template FORBIDDEN = new Template(403, "Forbidden", "Bu işlem için yetkiniz bulunmamaktadır.");
+
+    public static final FixedBody ADMIN_NOT_FOUND = new FixedBody("""
+            {
+                "description": "Talep edilen kaynak sistemde bulunamadı veya bu işlem için gerekli izinler sağlanamadı.",
+                "error": "Erişim Kısıtlaması",
+                "status": 404
+            }
+            """.getBytes(StandardCharsets.UTF_8));
+
+    private static volatile Timestamp timestamp = Timestamp.of(System.currentTimeMillis() / 1000);
+
+    private ErrorBodies() {
+    }
+
+    /**
+     * {@code {"status":"FAILED","processCode":..,"processMessage":..}} gövdesi. Her çağrıda yeniden kodlanır;
+     * mesajı sabit olan gövdeler çağıran sınıfta bir kez üretilip sabit olarak tutulmalıdır.
+     */
+    public static byte[] baseResponse(String processCode, String processMessage) {
+        return encodeBaseResponse(processCode, processMessage);
+    }
+
+    /**
+     * Mesajı sabit olan {@link #baseResponse} gövdesi; gzip hali de burada bir kez üretilir. Sınıf sabiti olarak
+     * tutulmalıdır.
+     */
+    public static FixedBody fixed(String processCode, String processMessage) {
+        return new FixedBody(encodeBaseResponse(processCode, processMessage));
+    }
+
+    /**
+     * Hazır gövdeyi kopyalamadan yazar.
+     */
+    public static Mono<Void> write(ServerHttpResponse response, HttpStatus status, byte[] body) {
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * Dinamik gövdeyi sıkıştırmadan yazar; istek başına sıkıştırma maliyeti hata yolunda ödenmez.
+     */
+    public static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, byte[] body) {
+        return write(exchange.getResponse(), status, body);
+    }
+
+    /**
+     * İstemci gzip kabul ediyorsa ve gzip hali daha küçükse gövdeyi önceden sıkıştırılmış haliyle yazar.
+     */
+    public static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, FixedBody body) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (body.gzipped != null && exchange.getAttribute(RESPONSE_ENCODING) == Encoding.GZIP) {
+            response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, Encoding.GZIP.token());
+            response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            return write(response, status, body.gzipped);
+        }
+        return write(response, status, body.plain);
+    }
+
+    public static Mono<Void> write(ServerWebExchange exchange, Template template) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(template.status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(template.render(response, exchange.getRequest().getPath().value())));
+    }
+
+    private static byte[] encodeBaseResponse(String processCode, String processMessage) {
+        StringBuilder json = new StringBuilder(96 + processMessage.length()).append("{\"status\":\"FAILED\",\"processCode\":");
+        appendNullable(json, processCode).append(",\"processMessage\":");
+        return appendNullable(json, processMessage).append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static StringBuilder appendNullable(StringBuilder json, String value) {
+        return value == null ? json.append("null") : JsonStrings.appendEscaped(json.append('"'), value).append('"');
+    }
+
+    /**
+     * Saniye çözünürlüklü, bir saniye boyunca tekrar kullanılan {@code LocalDateTime} byte'ları.
+     */
+    private static byte[] currentTimestamp() {
+        long second = System.currentTimeMillis() / 1000;
+        Timestamp current = timestamp;
+        if (current.epochSecond != second) {
+            current = Timestamp.of(second);
+            timestamp = current;
+        }
+        return current.bytes;
+    }
+
+    /**
+     * Sabit gövde ve açılışta bir kez üretilmiş gzip hali.
+     */
+    public static final class FixedBody {
+
+        private final byte[] plain;
+
+        /** Sıkıştırma gövdeyi küçültmüyorsa {@code null} */
+        private final byte[] gzipped;
+
+        private FixedBody(byte[] plain) {
+            byte[] compressed = StreamingCompressor.compressAll(Encoding.GZIP, Deflater.BEST_COMPRESSION, plain);
+            this.plain = plain;
+            this.gzipped = compressed.length < plain.length ? compressed : null;
+        }
+
+        public byte[] bytes() {
+            return plain;
+        }
+    }
+
+    private record Timestamp(long epochSecond, byte[] bytes) {
+
+        static Timestamp of(long epochSecond) {
+            String value = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).toString();
+            return new Timestamp(epochSecond, value.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * Security entry point gövdesi: {@code timestamp} ve {@code path} dışındaki her şey önceden kodlanmıştır.
+     */
+    public static final class Template {
+
+        private final HttpStatus status;
+
+        private final byte[] prefix;
+
+        private final byte[] middle;
+
+        private final byte[] suffix;
+
+        private Template(int status, String error, String message) {
+            this.status = HttpStatus.valueOf(status);
+            this.prefix = "{\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+            this.middle = ("\",\"status\":" + status
+                    + ",\"error\":\"" + JsonStrings.escape(error)
+                    + "\",\"message\":\"" + JsonStrings.escape(message)
+                    + "\",\"path\":\"").getBytes(StandardCharsets.UTF_8);
+            this.suffix = "\"}".getBytes(StandardCharsets.UTF_8);
+        }
+
+        private DataBuffer render(ServerHttpResponse response, String path) {
+            byte[] now = currentTimestamp();
+            DataBuffer buffer = response.bufferFactory().allocateBuffer(
+                    prefix.length + now.length + middle.length + path.length() + 16 + suffix.length);
+            buffer.write(prefix).write(now).write(middle);
+            writePath(buffer, path);
+            return buffer.write(suffix);
+        }
+
+        /**
+         * Ham (percent-encoded) path pratikte her zaman ASCII'dir; karakterler ara String/byte[] oluşturmadan
+         * doğrudan buffer'a yazılır.
+         */
+        private static void writePath(DataBuffer buffer, String path) {
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                if (c == '"' || c == '\\') {
+                    buffer.write((byte) '\\').write((byte) c);
+                } else if (c < 0x20) {
+                    buffer.write(JsonStrings.appendEscaped(new StringBuilder(6), String.valueOf(c)).toString().getBytes(StandardCharsets.US_ASCII));
+                } else if (c < 0x80) {
+                    buffer.write((byte) c);
+                } else {
+                    int codePoint = path.codePointAt(i);
+                    i += Character.charCount(codePoint) - 1;
+                    buffer.write(new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+}
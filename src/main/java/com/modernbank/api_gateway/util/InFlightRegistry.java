@@ -0,0 +1,55 @@
+package com.modernbank.api_gateway.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Aynı anahtar için eşzamanlı gelen işlemleri tek bir bekleyen {@link Mono} üzerinde birleştirir.
+ * Kayıt, işlem başarıyla ya da hatayla sonuçlandığında kaldırılır; sonraki çağrı yeni bir işlem başlatır.
+ * ConcurrentHashMap okumaları kilitsizdir, yazmalar sadece ilgili bin'i kilitler.
+ */
+public class InFlightRegistry<T> {
+
+    private final Map<String, Mono<T>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter merged;
+
+    public InFlightRegistry(MeterRegistry meterRegistry, String name) {
+        this.merged = Counter.builder(name + ".merged")
+                .description("Calls served by an already pending operation for the same key")
+                .register(meterRegistry);
+        Gauge.builder(name + ".in-flight", inFlight, Map::size)
+                .description("Operations currently pending")
+                .register(meterRegistry);
+    }
+
+    public Mono<T> join(String key, Supplier<Mono<T>> loader) {
+        Mono<T> pending = inFlight.get(key);
+        if (pending != null) {
+            merged.increment();
+            return pending;
+        }
+
+        // Kayıt sonuç bekleyenlere iletilmeden önce kaldırılır; sonucu işlerken tekrar join eden yeni işlem başlatır
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        Mono<T> shared = Mono.defer(loader)
+                .doOnTerminate(() -> inFlight.remove(key, self.get()))
+                .doOnCancel(() -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(shared);
+
+        pending = inFlight.putIfAbsent(key, shared);
+        if (pending != null) {
+            merged.increment();
+            return pending;
+        }
+        return shared;
+    }
+}
@@ -0,0 +1,48 @@
+package com.modernbank.api_gateway.util;
+
+/**
+ * Reflection'sız JSON üretimi için string escape yardımcıları. Jackson'ın çıktısı ile aynıdır:
+ * ASCII dışı karakterler olduğu gibi (UTF-8) yazılır, sadece tırnak, ters bölü ve kontrol karakterleri escape edilir.
+ */
+public final class JsonStrings {
+
+    private JsonStrings() {
+    }
+
+    public static boolean needsEscaping(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static StringBuilder appendEscaped(StringBuilder json, CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                case '\b' -> json.append("\\b");
+                case '\f' -> json.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json;
+    }
+
+    public static String escape(CharSequence value) {
+        return needsEscaping(value) ? appendEscaped(new StringBuilder(value.length() + 16), value).toString() : value.toString();
+    }
+}
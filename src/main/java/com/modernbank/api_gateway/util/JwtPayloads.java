@@ -0,0 +1,38 @@
+package com.modernbank.api_gateway.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * JWT payload'ını imza doğrulaması yapmadan okur. Sadece cache süresi gibi
+ * güvenlik kararı olmayan ipuçları için kullanılmalıdır.
+ */
+public final class JwtPayloads {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private JwtPayloads() {
+    }
+
+    /**
+     * @return token'ın {@code exp} claim'i, token JWT değilse veya claim yoksa {@code null}
+     */
+    public static Instant expiresAt(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0) {
+            return null;
+        }
+
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(first + 1, second));
+            JsonNode exp = OBJECT_MAPPER.readTree(payload).get("exp");
+            return exp != null && exp.canConvertToLong() ? Instant.ofEpochSecond(exp.asLong()) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.modernbank.api_gateway.util;
+
+import java.util.Arrays;
+
+/**
+ * Son {@code windowSize} gecikme örneğinden bir yüzdelik değeri tutar. Değer her {@code windowSize / 4} örnekte
+ * bir yeniden hesaplanır; okuma kilitsizdir. Pencere dolana kadar ({@code minSamples}) değer {@code -1}'dir.
+ */
+public class LatencyPercentile {
+
+    private final double percentile;
+
+    private final long[] samples;
+
+    private final int minSamples;
+
+    private final int recomputeEvery;
+
+    private int next;
+
+    private int count;
+
+    private int sinceRecompute;
+
+    private volatile long valueNanos = -1;
+
+    public LatencyPercentile(double percentile, int windowSize, int minSamples) {
+        this.percentile = percentile;
+        this.samples = new long[windowSize];
+        this.minSamples = Math.min(minSamples, windowSize);
+        this.recomputeEvery = Math.max(1, windowSize / 4);
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+
+        if (count >= minSamples && (++sinceRecompute >= recomputeEvery || valueNanos < 0)) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            valueNanos = sorted[Math.max(0, Math.min(count - 1, (int) Math.ceil(percentile * count) - 1))];
+        }
+    }
+
+    public long getValueNanos() {
+        return valueNanos;
+    }
+}
@@ -0,0 +1,37 @@
+package com.modernbank.api_gateway.util;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Metrik etiketleri için sınırlı kardinaliteli değerler. Ham path yerine route id'si,
+ * status kodu yerine status sınıfı kullanılır.
+ */
+public final class MetricTags {
+
+    public static final String ROUTE = "route";
+
+    public static final String STATUS = "status";
+
+    /** Hiçbir route ile eşleşmeyen (security katmanında cevaplanan, 404 vb.) istekler */
+    public static final String NO_ROUTE = "none";
+
+    private MetricTags() {
+    }
+
+    public static String route(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : NO_ROUTE;
+    }
+
+    /**
+     * @return {@code 2xx}, {@code 4xx} ... ya da status set edilmediyse {@code unknown}
+     */
+    public static String statusClass(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null ? (status.value() / 100) + "xx" : "unknown";
+    }
+}
@@ -0,0 +1,43 @@
+package com.modernbank.api_gateway.util;
+
+/**
+ * Ek (hedge / retry) istekler için token bucket. Her normal istek {@code ratio} kadar token biriktirir, her ek
+ * istek bir token harcar; böylece ek istekler normal trafiğin {@code ratio} oranını, anlık olarak da
+ * {@code maxTokens}'ı aşamaz. Upstream çöktüğünde bütün istekler yavaşlasa bile ek istekler yükü katlamaz.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+
+    private final double maxTokens;
+
+    private double tokens;
+
+    public RetryBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    /**
+     * Normal bir isteği kaydeder.
+     */
+    public synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * @return ek istek için bütçe varsa {@code true}; bu durumda bir token harcanır
+     */
+    public synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double getTokens() {
+        return tokens;
+    }
+}
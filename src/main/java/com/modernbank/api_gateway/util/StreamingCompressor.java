@@ -0,0 +1,161 @@
+package com.modernbank.api_gateway.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Bir cevap gövdesini parça parça gzip ya da deflate (zlib) formatında sıkıştırır. Her {@link #compress} çağrısı
+ * o ana kadar üretilen çıktıyı döner, {@link #finish()} kalan çıktıyı ve gzip trailer'ını ekler. Native
+ * {@link Deflater} belleği {@link #end()} ile bırakılmalıdır. Tek bir cevap akışına aittir, thread-safe değildir.
+ */
+public final class StreamingCompressor {
+
+    public enum Encoding {
+        GZIP("gzip"),
+        DEFLATE("deflate");
+
+        private final String token;
+
+        Encoding(String token) {
+            this.token = token;
+        }
+
+        public String token() {
+            return token;
+        }
+
+        /**
+         * {@code Accept-Encoding} değerlerinden desteklenen en iyi kodlamayı seçer; {@code q=0} ile reddedilenler
+         * atlanır. Eşit ağırlıkta gzip tercih edilir.
+         *
+         * @return kabul edilen kodlama yoksa {@code null}
+         */
+        public static Encoding negotiate(List<String> acceptEncoding) {
+            Encoding best = null;
+            double bestWeight = 0;
+            double wildcard = -1;
+            double[] weights = {-1, -1};
+            for (String header : acceptEncoding) {
+                for (String part : header.split(",")) {
+                    String[] tokens = part.trim().split(";");
+                    String name = tokens[0].trim().toLowerCase(Locale.ROOT);
+                    double weight = weight(tokens);
+                    if (name.equals("*")) {
+                        wildcard = weight;
+                    } else if (name.equals(GZIP.token) || name.equals("x-gzip")) {
+                        weights[GZIP.ordinal()] = weight;
+                    } else if (name.equals(DEFLATE.token)) {
+                        weights[DEFLATE.ordinal()] = weight;
+                    }
+                }
+            }
+            for (Encoding encoding : values()) {
+                double weight = weights[encoding.ordinal()] >= 0 ? weights[encoding.ordinal()] : wildcard;
+                if (weight > bestWeight) {
+                    best = encoding;
+                    bestWeight = weight;
+                }
+            }
+            return best;
+        }
+
+        private static double weight(String[] tokens) {
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+            return 1;
+        }
+    }
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final Encoding encoding;
+
+    private final Deflater deflater;
+
+    private final CRC32 crc = new CRC32();
+
+    private final byte[] scratch = new byte[8192];
+
+    private boolean headerWritten;
+
+    public StreamingCompressor(Encoding encoding, int level) {
+        this.encoding = encoding;
+        this.deflater = new Deflater(level, encoding == Encoding.GZIP);
+    }
+
+    /**
+     * Tüm gövdeyi tek seferde sıkıştırır.
+     */
+    public static byte[] compressAll(Encoding encoding, int level, byte[] body) {
+        StreamingCompressor compressor = new StreamingCompressor(encoding, level);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 32);
+            out.writeBytes(compressor.compress(ByteBuffer.wrap(body)));
+            out.writeBytes(compressor.finish());
+            return out.toByteArray();
+        } finally {
+            compressor.end();
+        }
+    }
+
+    public byte[] compress(ByteBuffer input) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.remaining() / 2));
+        writeHeader(out);
+        if (encoding == Encoding.GZIP) {
+            crc.update(input.duplicate());
+        }
+        deflater.setInput(input);
+        while (!deflater.needsInput()) {
+            int length = deflater.deflate(scratch);
+            out.write(scratch, 0, length);
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] finish() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        writeHeader(out);
+        deflater.finish();
+        while (!deflater.finished()) {
+            int length = deflater.deflate(scratch);
+            out.write(scratch, 0, length);
+        }
+        if (encoding == Encoding.GZIP) {
+            writeIntLE(out, (int) crc.getValue());
+            writeIntLE(out, (int) deflater.getBytesRead());
+        }
+        return out.toByteArray();
+    }
+
+    public void end() {
+        deflater.end();
+    }
+
+    private void writeHeader(ByteArrayOutputStream out) {
+        if (!headerWritten) {
+            headerWritten = true;
+            if (encoding == Encoding.GZIP) {
+                out.writeBytes(GZIP_HEADER);
+            }
+        }
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
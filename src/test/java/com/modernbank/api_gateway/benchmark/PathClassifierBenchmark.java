@@ -0,0 +1,88 @@
+package com.modernbank.api_gateway.benchmark;
+
+import com.modernbank.api_gateway.config.PathRulesProperties;
+import com.modernbank.api_gateway.service.PathClassifier;
+import com.modernbank.api_gateway.service.PathClassifier.PathClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PathClassifier'ı, SecurityContextRepository / SecurityConfiguration / AuthenticationFilter'daki
+ * eski {@code startsWith} / {@code contains} zincirleriyle karşılaştırır.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathClassifierBenchmark {
+
+    @Param({
+            "/authentication/login",
+            "/notification/chat-websocket/info",
+            "/account/api/v1/admin/users",
+            "/transaction/api/v1/transfers/history"
+    })
+    private String path;
+
+    private PathClassifier classifier;
+
+    @Setup
+    public void setUp() {
+        classifier = new PathClassifier(new PathRulesProperties());
+    }
+
+    @Benchmark
+    public PathClass classifier() {
+        return classifier.classify(path);
+    }
+
+    /**
+     * Tek bir istekte eski kodun yaptığı kontrollerin toplamı: SecurityContextRepository'deki 7 prefix,
+     * AuthenticationFilter'daki 2 websocket + 3 public prefix ve 2 contains taraması.
+     */
+    @Benchmark
+    public PathClass legacyStringChecks() {
+        boolean skippedBySecurityContextRepository = path.startsWith("/authentication") ||
+                path.startsWith("/api/v1/verification/user") ||
+                path.startsWith("/account/api/v1/verification/user") ||
+                path.startsWith("/notification/notification-websocket") ||
+                path.startsWith("/notification-websocket") ||
+                path.startsWith("/notification/chat-websocket") ||
+                path.startsWith("/chat-websocket");
+
+        if (path.startsWith("/notification/notification-websocket") || path.startsWith("/notification/chat-websocket")) {
+            return PathClass.WEBSOCKET;
+        }
+        if (path.startsWith("/authentication") ||
+                path.startsWith("/api/v1/verification/user") ||
+                path.startsWith("/account/api/v1/verification/user")) {
+            return PathClass.PUBLIC;
+        }
+        if (path.contains("/cache") || path.contains("/admin")) {
+            return PathClass.ADMIN;
+        }
+        return skippedBySecurityContextRepository ? PathClass.WEBSOCKET : PathClass.AUTHENTICATED;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PathClassifierBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
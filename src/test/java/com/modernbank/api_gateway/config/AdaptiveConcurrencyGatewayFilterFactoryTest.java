@@ -0,0 +1,123 @@
+package com.modernbank.api_gateway.config;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+class AdaptiveConcurrencyGatewayFilterFactoryTest {
+
+    private static final String ROUTE = "atm-reporting-service";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyGatewayFilterFactory.Config config = new AdaptiveConcurrencyGatewayFilterFactory.Config();
+        config.setRouteId(ROUTE);
+        filter = new AdaptiveConcurrencyGatewayFilterFactory(meterRegistry, 2, 1, 10, 0.5, 2.0,
+                Duration.ofSeconds(5)).apply(config);
+    }
+
+    @Test
+    void filter_shouldRejectImmediatelyWhenLimitReached() {
+        Sinks.Empty<Void> first = Sinks.empty();
+        Sinks.Empty<Void> second = Sinks.empty();
+        filter.filter(exchange(), chain(first.asMono())).subscribe();
+        filter.filter(exchange(), chain(second.asMono())).subscribe();
+
+        MockServerWebExchange rejected = exchange();
+        filter.filter(rejected, chain(Mono.empty())).block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst("Retry-After"));
+        assertTrue(rejected.getResponse().getBodyAsString().block().contains("\"processCode\":\"ERR-503\""));
+        assertEquals(1.0, meterRegistry.get("gateway.concurrency.rejected").tag("route", ROUTE).counter().count());
+        assertEquals(2.0, gauge("gateway.concurrency.in-flight"));
+
+        first.tryEmitEmpty();
+        second.tryEmitEmpty();
+        assertEquals(0.0, gauge("gateway.concurrency.in-flight"));
+    }
+
+    @Test
+    void filter_shouldGrowLimitWhileUpstreamIsHealthy() {
+        filter.filter(exchange(), chain(Mono.empty())).block();
+
+        assertEquals(3.0, gauge("gateway.concurrency.limit"));
+    }
+
+    @Test
+    void filter_shouldShrinkLimitWhenUpstreamIsOverloaded() {
+        filter.filter(exchange(), exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+            return Mono.empty();
+        }).block();
+
+        assertEquals(1.0, gauge("gateway.concurrency.limit"));
+    }
+
+    @Test
+    void filter_shouldNotCountCircuitBreakerFallbackAsDropped() {
+        // Upstream zaman aşımı sonrası fallback: istek örneklenir ama 503'ü düşürülme sayılmaz
+        filter.filter(exchange(), fallback(new TimeoutException("upstream timeout"))).block();
+        assertEquals(3.0, gauge("gateway.concurrency.limit"));
+
+        // Açık breaker: upstream'e gidilmedi, limit değişmez
+        CircuitBreaker breaker = CircuitBreaker.ofDefaults(ROUTE);
+        breaker.transitionToForcedOpenState();
+        filter.filter(exchange(), fallback(CallNotPermittedException.createCallNotPermittedException(breaker))).block();
+        assertEquals(3.0, gauge("gateway.concurrency.limit"));
+        assertEquals(0.0, gauge("gateway.concurrency.in-flight"));
+    }
+
+    @Test
+    void filter_shouldNotCountWebSocketUpgrades() {
+        for (int i = 0; i < 3; i++) {
+            MockServerWebExchange upgrade = MockServerWebExchange.from(MockServerHttpRequest.get("/notification/chat-websocket")
+                    .header("Upgrade", "websocket"));
+            filter.filter(upgrade, chain(Sinks.<Void>empty().asMono())).subscribe();
+        }
+
+        assertEquals(0.0, gauge("gateway.concurrency.in-flight"));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("route", ROUTE).gauge().value();
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/atm/api/v1/atms"));
+    }
+
+    /** CircuitBreaker filtresinin fallback'e yönlendirmesi gibi: hata exchange'e yazılır, cevap 503 olur */
+    private static GatewayFilterChain fallback(Throwable cause) {
+        return exchange -> {
+            exchange.getAttributes().put(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR, cause);
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return Mono.empty();
+        };
+    }
+
+    private static GatewayFilterChain chain(Mono<Void> upstream) {
+        return exchange -> upstream;
+    }
+}
@@ -0,0 +1,123 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.config.AdmissionControlProperties.Priority;
+import com.modernbank.api_gateway.service.EventLoopLagProbe;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdmissionControlFilterTest {
+
+    private final Sinks.Empty<Void> pending = Sinks.empty();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EventLoopLagProbe lagProbe;
+
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        // CRITICAL 10, NORMAL 8, LOW 4
+        properties.setMaxInFlight(10);
+        properties.setCriticalReservedShare(0.2);
+        properties.setLowPriorityShare(0.5);
+        properties.setLagThreshold(Duration.ofMillis(100));
+        properties.setPriorities(Map.of(
+                Priority.CRITICAL, List.of("/transaction"),
+                Priority.LOW, List.of("/atm", "/transaction/api/v1/reports/")));
+
+        meterRegistry = new SimpleMeterRegistry();
+        lagProbe = mock(EventLoopLagProbe.class);
+        filter = new AdmissionControlFilter(properties, lagProbe, meterRegistry);
+    }
+
+    @Test
+    void priority_shouldUseLongestSegmentPrefix() {
+        assertEquals(Priority.CRITICAL, filter.priority("/transaction/api/v1/transfer"));
+        assertEquals(Priority.LOW, filter.priority("/transaction/api/v1/reports/daily"));
+        assertEquals(Priority.LOW, filter.priority("/atm"));
+        assertEquals(Priority.NORMAL, filter.priority("/atmosphere"));
+        assertEquals(Priority.NORMAL, filter.priority("/account/api/v1/accounts"));
+    }
+
+    @Test
+    void filter_shouldShedLowPriorityFirstAndKeepReserveForCritical() {
+        hold("/atm/api/v1/reports", 4);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, execute("/atm/api/v1/reports"));
+        hold("/account/api/v1/accounts", 4);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, execute("/account/api/v1/accounts"));
+        hold("/transaction/api/v1/transfer", 2);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, execute("/transaction/api/v1/transfer"));
+
+        assertEquals(1.0, rejected("low", "in-flight"));
+        assertEquals(1.0, rejected("normal", "in-flight"));
+        assertEquals(1.0, rejected("critical", "in-flight"));
+
+        pending.tryEmitEmpty();
+        assertEquals(0.0, meterRegistry.get("gateway.admission.in-flight").gauge().value());
+        assertNull(execute("/atm/api/v1/reports"));
+    }
+
+    @Test
+    void filter_shouldShedByEventLoopLagInPriorityOrder() {
+        when(lagProbe.lagNanos()).thenReturn(Duration.ofMillis(150).toNanos());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, execute("/atm/api/v1/reports"));
+        assertNull(execute("/account/api/v1/accounts"));
+
+        when(lagProbe.lagNanos()).thenReturn(Duration.ofMillis(250).toNanos());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, execute("/account/api/v1/accounts"));
+        assertNull(execute("/transaction/api/v1/transfer"));
+
+        assertEquals(1.0, rejected("low", "event-loop-lag"));
+        assertEquals(1.0, rejected("normal", "event-loop-lag"));
+    }
+
+    @Test
+    void filter_shouldWriteBaseResponseWhenShedding() {
+        when(lagProbe.lagNanos()).thenReturn(Duration.ofSeconds(1).toNanos());
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/atm/api/v1/reports"));
+
+        filter.filter(exchange, e -> Mono.empty()).block();
+
+        assertEquals("1", exchange.getResponse().getHeaders().getFirst("Retry-After"));
+        assertTrue(exchange.getResponse().getBodyAsString().block().contains("\"processCode\":\"ERR-503\""));
+    }
+
+    private void hold(String path, int count) {
+        for (int i = 0; i < count; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+            filter.filter(exchange, e -> pending.asMono()).subscribe();
+        }
+    }
+
+    private HttpStatus execute(String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        WebFilterChain chain = e -> Mono.empty();
+        filter.filter(exchange, chain).block();
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+
+    private double rejected(String priority, String reason) {
+        return meterRegistry.get("gateway.admission.rejected").tag("priority", priority).tag("reason", reason)
+                .counter().count();
+    }
+}
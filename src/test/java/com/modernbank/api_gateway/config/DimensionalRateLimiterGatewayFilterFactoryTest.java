@@ -0,0 +1,107 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.service.ClientIpResolver;
+import com.modernbank.api_gateway.service.RateLimitKeys;
+import com.modernbank.api_gateway.service.RateLimitKeys.Dimension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DimensionalRateLimiterGatewayFilterFactoryTest {
+
+    private static final String ROUTE_ID = "authentication-service";
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getLimits().put(ROUTE_ID, List.of(
+                limit(List.of(Dimension.IP), 1, 3),
+                limit(List.of(Dimension.IP, Dimension.TOKEN), 1, 1)));
+
+        ConfigurationService configurationService = new ConfigurationService(new StaticListableBeanFactory(),
+                DefaultFormattingConversionService::new, () -> null);
+        LocalRateLimiter rateLimiter = new LocalRateLimiter(configurationService,
+                new StaticListableBeanFactory().getBeanProvider(ReactiveStringRedisTemplate.class),
+                false, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(rateLimiter, "includeHeaders", true);
+
+        DimensionalRateLimiterGatewayFilterFactory factory = new DimensionalRateLimiterGatewayFilterFactory(rateLimiter,
+                new RateLimitKeys(new ClientIpResolver(properties)), properties, configurationService, new SimpleMeterRegistry());
+        DimensionalRateLimiterGatewayFilterFactory.Config config = new DimensionalRateLimiterGatewayFilterFactory.Config();
+        config.setRouteId(ROUTE_ID);
+        filter = factory.apply(config);
+    }
+
+    @Test
+    void filter_shouldApplyEachDimensionInItsOwnBucket() {
+        // Token'sız istekler sadece IP limitine takılır
+        assertNull(execute("203.0.113.7", null).getResponse().getStatusCode());
+        // Aynı IP'den token ile gelen ilk istek token bucket'ını doldurur, ikincisi reddedilir
+        assertNull(execute("203.0.113.7", "token-a").getResponse().getStatusCode());
+        MockServerWebExchange denied = execute("203.0.113.7", "token-a");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, denied.getResponse().getStatusCode());
+        assertEquals("0", denied.getResponse().getHeaders().getFirst(RedisRateLimiter.REMAINING_HEADER));
+        assertEquals(2, forwarded.get());
+    }
+
+    @Test
+    void filter_shouldNotShareBucketsAcrossClientIps() {
+        for (int i = 0; i < 3; i++) {
+            execute("203.0.113.7", null);
+        }
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, execute("203.0.113.7", null).getResponse().getStatusCode());
+        assertNull(execute("198.51.100.1", null).getResponse().getStatusCode());
+    }
+
+    private MockServerWebExchange execute(String ip, String token) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.post("/authentication/login")
+                .remoteAddress(new InetSocketAddress(ip, 51234))
+                // Client'ın gönderdiği kullanıcı header'ı anahtara hiçbir şekilde girmez
+                .header("X-User-Id", String.valueOf(System.nanoTime()));
+        if (token != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private static RateLimitProperties.Limit limit(List<Dimension> dimensions, int replenishRate, int burstCapacity) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setDimensions(dimensions);
+        limit.setReplenishRate(replenishRate);
+        limit.setBurstCapacity(burstCapacity);
+        return limit;
+    }
+}
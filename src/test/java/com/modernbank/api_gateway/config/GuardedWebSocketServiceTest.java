@@ -0,0 +1,149 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.service.ClientIpResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.server.upgrade.ReactorNettyRequestUpgradeStrategy;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GuardedWebSocketServiceTest {
+
+    /** Upstream yerine istemcinin mesajlarını geri gönderir */
+    private static final WebSocketHandler ECHO = session -> session.send(session.receive()
+            .map(message -> session.textMessage(message.getPayloadAsText())));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ReactorNettyWebSocketClient client = new ReactorNettyWebSocketClient();
+
+    private final AtomicReference<List<String>> received = new AtomicReference<>();
+
+    private final AtomicReference<Boolean> open = new AtomicReference<>();
+
+    private DisposableServer server;
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void handleRequest_shouldCountMessagesInBothDirections() {
+        start(properties());
+
+        List<String> replies = client.execute(uri(), session -> session.send(Flux.just("a", "b", "c").map(session::textMessage))
+                        .thenMany(session.receive().map(message -> message.getPayloadAsText()).take(3))
+                        .collectList()
+                        .doOnNext(received::set)
+                        .then())
+                .then(Mono.fromSupplier(received::get))
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("a", "b", "c"), replies);
+        assertEquals(3, messages("inbound"));
+        assertEquals(3, messages("outbound"));
+        awaitOpenConnections(0);
+    }
+
+    @Test
+    void handleRequest_shouldLimitConnectionsPerUser() {
+        WebSocketProperties properties = properties();
+        properties.setMaxConnectionsPerUser(1);
+        start(properties);
+
+        Disposable first = client.execute(uri(), session -> session.receive().then()).subscribe();
+        awaitOpenConnections(1);
+
+        assertThrows(Exception.class, () -> client.execute(uri(), session -> Mono.empty()).block(Duration.ofSeconds(5)));
+        assertEquals(1, meterRegistry.get("gateway.websocket.rejected").tag("reason", "user").counter().count());
+
+        first.dispose();
+        awaitOpenConnections(0);
+        client.execute(uri(), session -> Mono.empty()).block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void handleRequest_shouldCloseIdleConnectionsButKeepPingedOnesOpen() {
+        WebSocketProperties properties = properties();
+        properties.setIdleTimeout(Duration.ofSeconds(1));
+        properties.setPingInterval(Duration.ofMillis(100));
+        start(properties);
+
+        // İstemci ping'lere otomatik pong döner, mesaj göndermese de bağlantı canlı sayılır
+        Boolean openAfterIdleTimeout = client.execute(uri(), session -> session.receive()
+                        .take(Duration.ofMillis(1500))
+                        .then(Mono.fromRunnable(() -> open.set(session.isOpen()))))
+                .then(Mono.fromSupplier(open::get))
+                .block(Duration.ofSeconds(5));
+        assertTrue(openAfterIdleTimeout);
+        assertEquals(0, meterRegistry.get("gateway.websocket.idle-closed").counter().count());
+        assertEquals(0, messages("inbound"));
+        server.disposeNow();
+
+        properties.setPingInterval(Duration.ZERO);
+        start(properties);
+        // Sessiz istemcinin bağlantısı sunucu tarafından kapatılır
+        Boolean openAfterIdle = client.execute(uri(), session -> session.receive()
+                        .then(Mono.fromRunnable(() -> open.set(session.isOpen()))))
+                .then(Mono.fromSupplier(open::get))
+                .block(Duration.ofSeconds(5));
+        assertFalse(openAfterIdle);
+        assertEquals(1, meterRegistry.get("gateway.websocket.idle-closed").counter().count());
+    }
+
+    private void start(WebSocketProperties properties) {
+        GuardedWebSocketService service = new GuardedWebSocketService(new ReactorNettyRequestUpgradeStrategy(), properties,
+                new ClientIpResolver(new RateLimitProperties()), meterRegistry);
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle(new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder
+                        .webHandler(exchange -> service.handleRequest(exchange, ECHO))
+                        .build()))
+                .bindNow();
+    }
+
+    private static WebSocketProperties properties() {
+        WebSocketProperties properties = new WebSocketProperties();
+        properties.setPingInterval(Duration.ZERO);
+        properties.setIdleTimeout(Duration.ZERO);
+        return properties;
+    }
+
+    private URI uri() {
+        return URI.create("ws://127.0.0.1:" + server.port() + "/notification/notification-websocket");
+    }
+
+    private double messages(String direction) {
+        return meterRegistry.get("gateway.websocket.messages").tag("direction", direction).counter().count();
+    }
+
+    private void awaitOpenConnections(int expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get("gateway.websocket.connections").gauge().value() != expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("open connections did not reach " + expected);
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.modernbank.api_gateway.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+class HedgingGatewayFilterFactoryTest {
+
+    private static final String ROUTE = "account-service";
+
+    /** Sunucunun cevap vermeden bağlantıyı kapatması */
+    private static final String DROP = "drop";
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private volatile IntFunction<Mono<String>> behaviour = call -> Mono.just("ok-" + call);
+
+    private DisposableServer server;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private HedgingGatewayFilterFactory factory;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> behaviour.apply(calls.incrementAndGet())
+                        .flatMap(body -> DROP.equals(body)
+                                ? Mono.<Void>fromRunnable(() -> response.withConnection(Connection::dispose))
+                                : response.sendString(Mono.just(body)).then()))
+                .bindNow();
+
+        ObjectProvider<List<HttpHeadersFilter>> headersFilters = mock(ObjectProvider.class);
+        when(headersFilters.getIfAvailable(any())).thenReturn(List.of());
+
+        meterRegistry = new SimpleMeterRegistry();
+        factory = new HedgingGatewayFilterFactory(HttpClient.create(), headersFilters, new HttpClientProperties(), meterRegistry);
+        ReflectionTestUtils.setField(factory, "percentile", 0.95);
+        ReflectionTestUtils.setField(factory, "minDelay", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(factory, "windowSize", 16);
+        ReflectionTestUtils.setField(factory, "minSamples", 1);
+        ReflectionTestUtils.setField(factory, "budgetRatio", 0.1);
+        ReflectionTestUtils.setField(factory, "budgetMaxTokens", 10.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void filter_shouldServeHedgeWhenPrimaryIsSlow() {
+        GatewayFilter filter = filter();
+        assertEquals("ok-1", execute(filter).getResponse().getBodyAsString().block());
+
+        behaviour = call -> call == 2 ? Mono.just("slow").delayElement(Duration.ofSeconds(2)) : Mono.just("fast");
+        MockServerWebExchange exchange = execute(filter);
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("fast", exchange.getResponse().getBodyAsString().block());
+        assertEquals(1.0, count("gateway.hedging.sent"));
+        assertEquals(1.0, count("gateway.hedging.wins"));
+        assertEquals(2.0, count("gateway.hedging.requests"));
+    }
+
+    @Test
+    void filter_shouldRecordPrimaryLatencyWhenHedgeWins() {
+        // Her örnekte yüzdelik yeniden hesaplanır
+        ReflectionTestUtils.setField(factory, "windowSize", 4);
+        GatewayFilter filter = filter();
+        execute(filter);
+
+        behaviour = call -> call == 2 ? Mono.just("slow").delayElement(Duration.ofSeconds(2)) : Mono.just("fast");
+        execute(filter);
+
+        // Hedge 50 ms sonra gönderildi; ilk istek en az bu kadar sürdüğü için gecikme min-delay'in üstüne çıkar
+        assertEquals(1.0, count("gateway.hedging.wins"));
+        assertTrue(meterRegistry.get("gateway.hedging.delay").tag("route", ROUTE).timeGauge().value(TimeUnit.MILLISECONDS) > 50);
+    }
+
+    @Test
+    void filter_shouldNotHedgeWhenBudgetIsEmpty() {
+        ReflectionTestUtils.setField(factory, "budgetMaxTokens", 0.0);
+        GatewayFilter filter = filter();
+        execute(filter);
+
+        behaviour = call -> call == 2 ? Mono.just("slow").delayElement(Duration.ofSeconds(1)) : Mono.just("fast");
+        MockServerWebExchange exchange = execute(filter);
+
+        assertEquals("slow", exchange.getResponse().getBodyAsString().block());
+        assertEquals(2, calls.get());
+        assertEquals(0.0, count("gateway.hedging.sent"));
+        assertEquals(1.0, count("gateway.hedging.budget-exhausted"));
+    }
+
+    @Test
+    void filter_shouldRetryImmediatelyWhenPrimaryFails() {
+        behaviour = call -> call == 1 ? Mono.just(DROP) : Mono.just("recovered");
+
+        MockServerWebExchange exchange = execute(filter());
+
+        assertEquals("recovered", exchange.getResponse().getBodyAsString().block());
+        assertEquals(1.0, count("gateway.hedging.wins"));
+    }
+
+    private GatewayFilter filter() {
+        HedgingGatewayFilterFactory.Config config = new HedgingGatewayFilterFactory.Config();
+        config.setRouteId(ROUTE);
+        return factory.apply(config);
+    }
+
+    private MockServerWebExchange execute(GatewayFilter filter) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/account/api/v1/accounts"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://127.0.0.1:" + server.port() + "/api/v1/accounts"));
+        filter.filter(exchange, e -> Mono.error(new AssertionError("routing filter must be skipped"))).block(Duration.ofSeconds(5));
+        return exchange;
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).tag("route", ROUTE).counter().count();
+    }
+}
@@ -0,0 +1,117 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.api.response.UserInfoResponse;
+import com.modernbank.api_gateway.exception.RemoteServiceException;
+import com.modernbank.api_gateway.service.AuthenticatedUser;
+import com.modernbank.api_gateway.service.LocalIdempotencyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.AUTHENTICATED_USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+
+class IdempotencyGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"transactionId\":\"tx-1\"}";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        LocalIdempotencyStore store = new LocalIdempotencyStore(Duration.ofHours(1), Duration.ofSeconds(15), DataSize.ofMegabytes(1));
+        filter = new IdempotencyGatewayFilterFactory(store, DataSize.ofKilobytes(64), Duration.ofSeconds(5),
+                Duration.ofMillis(10), new SimpleMeterRegistry())
+                .apply(new IdempotencyGatewayFilterFactory.Config());
+    }
+
+    @Test
+    void filter_shouldReplayStoredResponseForRetry() {
+        GatewayFilterChain upstream = upstream(HttpStatus.CREATED, Duration.ZERO);
+
+        MockServerWebExchange first = exchange("/transaction/api/v1/transfers", "key-1");
+        filter.filter(first, upstream).block();
+        MockServerWebExchange retry = exchange("/transaction/api/v1/transfers", "key-1");
+        filter.filter(retry, upstream).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertNull(first.getResponse().getHeaders().getFirst(IdempotencyGatewayFilterFactory.IDEMPOTENT_REPLAYED));
+        assertEquals(HttpStatus.CREATED, retry.getResponse().getStatusCode());
+        assertEquals("true", retry.getResponse().getHeaders().getFirst(IdempotencyGatewayFilterFactory.IDEMPOTENT_REPLAYED));
+        assertEquals(MediaType.APPLICATION_JSON, retry.getResponse().getHeaders().getContentType());
+        assertEquals(BODY, retry.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void filter_shouldJoinConcurrentDuplicate() {
+        GatewayFilterChain upstream = upstream(HttpStatus.CREATED, Duration.ofMillis(200));
+
+        MockServerWebExchange first = exchange("/transaction/api/v1/transfers", "key-1");
+        MockServerWebExchange duplicate = exchange("/transaction/api/v1/transfers", "key-1");
+        Mono.when(filter.filter(first, upstream), filter.filter(duplicate, upstream)).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(BODY, first.getResponse().getBodyAsString().block());
+        assertEquals(BODY, duplicate.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void filter_shouldForwardAgainAfterServerError() {
+        GatewayFilterChain upstream = upstream(HttpStatus.SERVICE_UNAVAILABLE, Duration.ZERO);
+
+        filter.filter(exchange("/transaction/api/v1/transfers", "key-1"), upstream).block();
+        filter.filter(exchange("/transaction/api/v1/transfers", "key-1"), upstream).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void filter_shouldRejectKeyReusedForAnotherRequest() {
+        GatewayFilterChain upstream = upstream(HttpStatus.CREATED, Duration.ZERO);
+        filter.filter(exchange("/transaction/api/v1/transfers", "key-1"), upstream).block();
+
+        StepVerifier.create(filter.filter(exchange("/transaction/api/v1/payments", "key-1"), upstream))
+                .expectErrorMatches(e -> e instanceof RemoteServiceException rse
+                        && rse.getStatus() == HttpStatus.UNPROCESSABLE_ENTITY)
+                .verify();
+    }
+
+    private MockServerWebExchange exchange(String path, String idempotencyKey) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post(path)
+                .header(IdempotencyGatewayFilterFactory.IDEMPOTENCY_KEY, idempotencyKey));
+        exchange.getAttributes().put(AUTHENTICATED_USER,
+                new AuthenticatedUser(new UserInfoResponse("42", "user@modernbank.com", List.of("ROLE_USER")), null));
+        return exchange;
+    }
+
+    private GatewayFilterChain upstream(HttpStatus status, Duration latency) {
+        return exchange -> Mono.delay(latency).then(Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(status);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, Set.of(HttpHeaders.CONTENT_TYPE));
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                    .wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        }));
+    }
+}
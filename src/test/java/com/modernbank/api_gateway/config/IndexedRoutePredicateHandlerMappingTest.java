@@ -0,0 +1,114 @@
+package com.modernbank.api_gateway.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IndexedRoutePredicateHandlerMappingTest {
+
+    /** Route id'si başına predicate'in kaç kez değerlendirildiği */
+    private final Map<String, AtomicInteger> evaluations = new ConcurrentHashMap<>();
+
+    private final AtomicReference<List<Route>> routes = new AtomicReference<>();
+
+    private final AtomicReference<List<RouteDefinition>> definitions = new AtomicReference<>();
+
+    private IndexedRoutePredicateHandlerMapping mapping;
+
+    @BeforeEach
+    void setUp() {
+        mapping = new IndexedRoutePredicateHandlerMapping(new FilteringWebHandler(List.of()),
+                () -> Flux.fromIterable(routes.get()), () -> Flux.fromIterable(definitions.get()),
+                new GlobalCorsProperties(), new StandardEnvironment());
+    }
+
+    @Test
+    void lookupRoute_shouldOnlyEvaluateRoutesIndexedUnderFirstSegment() {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            paths.add("/service" + i + "/**");
+        }
+        load(paths.toArray(String[]::new));
+
+        assertEquals("route-150", lookup("/service150/api/v1/items").getId());
+        assertEquals(Map.of("route-150", 1), evaluated());
+
+        assertNull(lookup("/unknown/api"));
+        assertEquals(Map.of("route-150", 1), evaluated());
+    }
+
+    @Test
+    void lookupRoute_shouldKeepRouteOrderWithUnindexedRoutes() {
+        // route-1 sabit ilk segmenti olmadığı için her istekte aday, ama route-0'dan sonra gelir
+        load("/account/special/**", "/*/special/**", "/account/**");
+
+        assertEquals("route-0", lookup("/account/special/x").getId());
+        assertEquals("route-1", lookup("/invoice/special/x").getId());
+        assertEquals("route-2", lookup("/account/balance").getId());
+        assertEquals(2, evaluations.get("route-1").get());
+    }
+
+    @Test
+    void lookupRoute_shouldSwapIndexWhenRoutesAreRefreshed() {
+        load("/account/**");
+        assertEquals("route-0", lookup("/account/balance").getId());
+        assertNull(lookup("/loan/apply"));
+
+        load("/loan/**");
+        assertEquals("route-0", lookup("/loan/apply").getId());
+        assertNull(lookup("/account/balance"));
+    }
+
+    /** Her pattern için {@code route-<sıra>} id'li bir route yükleyip refresh sonucunu yayınlar */
+    private void load(String... patterns) {
+        List<Route> loaded = new ArrayList<>();
+        List<RouteDefinition> loadedDefinitions = new ArrayList<>();
+        for (int i = 0; i < patterns.length; i++) {
+            String id = "route-" + i;
+            RouteDefinition definition = new RouteDefinition(id + "=http://upstream,Path=" + patterns[i]);
+            loadedDefinitions.add(definition);
+            PathPattern pattern = PathPatternParser.defaultInstance.parse(patterns[i]);
+            loaded.add(Route.async(definition)
+                    .asyncPredicate(exchange -> {
+                        evaluations.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+                        return Mono.just(pattern.matches(exchange.getRequest().getPath().pathWithinApplication()));
+                    })
+                    .build());
+        }
+        routes.set(loaded);
+        definitions.set(loadedDefinitions);
+        evaluations.clear();
+        mapping.onApplicationEvent(new RefreshRoutesResultEvent(this));
+    }
+
+    private Route lookup(String path) {
+        return mapping.lookupRoute(MockServerWebExchange.from(MockServerHttpRequest.get(path))).block();
+    }
+
+    private Map<String, Integer> evaluated() {
+        Map<String, Integer> counts = new ConcurrentHashMap<>();
+        evaluations.forEach((id, count) -> counts.put(id, count.get()));
+        return counts;
+    }
+}
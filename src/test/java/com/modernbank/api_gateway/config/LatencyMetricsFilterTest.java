@@ -0,0 +1,97 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.exception.RemoteServiceException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class LatencyMetricsFilterTest {
+
+    private static final String ROUTE = "account-service";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final LatencyMetricsFilter latencyMetricsFilter = new LatencyMetricsFilter(meterRegistry);
+
+    private final UpstreamTimingFilter upstreamTimingFilter = new UpstreamTimingFilter(meterRegistry);
+
+    @Test
+    void filter_shouldRecordTotalUpstreamAndOverheadPerRouteAndStatusClass() {
+        MockServerWebExchange exchange = exchange();
+
+        // Gateway içinde 100ms, upstream'de 200ms
+        latencyMetricsFilter.filter(exchange, webExchange -> Mono.delay(Duration.ofMillis(100))
+                .then(Mono.defer(() -> upstreamTimingFilter.filter(webExchange, routed -> Mono.delay(Duration.ofMillis(200))
+                        .then(Mono.fromRunnable(() -> routed.getResponse().setStatusCode(HttpStatus.OK)))))))
+                .block();
+        awaitRecorded();
+
+        Timer total = timer("gateway.request.duration", "2xx");
+        Timer upstream = timer("gateway.upstream.duration", "2xx");
+        Timer overhead = meterRegistry.get("gateway.overhead.duration").tag("route", ROUTE).timer();
+        assertEquals(1, total.count());
+        assertEquals(1, upstream.count());
+        assertEquals(1, overhead.count());
+        assertTrue(upstream.totalTime(TimeUnit.MILLISECONDS) >= 200);
+        assertTrue(overhead.totalTime(TimeUnit.MILLISECONDS) >= 100);
+        assertEquals(total.totalTime(TimeUnit.NANOSECONDS),
+                upstream.totalTime(TimeUnit.NANOSECONDS) + overhead.totalTime(TimeUnit.NANOSECONDS), 0.0);
+    }
+
+    @Test
+    void filter_shouldCountWholeRequestAsOverheadWhenUpstreamIsNotCalled() {
+        MockServerWebExchange exchange = exchange();
+        GatewayErrorFilter errorFilter = new GatewayErrorFilter(meterRegistry);
+
+        latencyMetricsFilter.filter(exchange, webExchange -> errorFilter.filter(webExchange, routed -> Mono.error(
+                        new RemoteServiceException(HttpStatus.UNAUTHORIZED, "BAD_CREDENTIALS_PROVIDED", "Token geçersiz."))))
+                .block();
+
+        Timer total = timer("gateway.request.duration", "4xx");
+        Timer overhead = meterRegistry.get("gateway.overhead.duration").tag("route", ROUTE).timer();
+        assertEquals(total.totalTime(TimeUnit.NANOSECONDS), overhead.totalTime(TimeUnit.NANOSECONDS), 0.0);
+        assertTrue(meterRegistry.find("gateway.upstream.duration").timers().isEmpty());
+        assertEquals(1, meterRegistry.get("gateway.errors")
+                .tag("route", ROUTE)
+                .tag("status", "4xx")
+                .tag("processCode", "BAD_CREDENTIALS_PROVIDED")
+                .counter().count());
+    }
+
+    /** doFinally, block() döndükten hemen sonra timer thread'inde çalışabilir */
+    private void awaitRecorded() {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.find("gateway.overhead.duration").timer() == null) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("request metrics were not recorded");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private Timer timer(String name, String statusClass) {
+        return meterRegistry.get(name).tag("route", ROUTE).tag("status", statusClass).timer();
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/account/api/v1/accounts"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id(ROUTE)
+                .uri("http://account-service")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
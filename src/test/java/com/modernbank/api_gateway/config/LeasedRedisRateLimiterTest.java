@@ -0,0 +1,103 @@
+package com.modernbank.api_gateway.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeasedRedisRateLimiterTest {
+
+    private final AtomicInteger scriptCalls = new AtomicInteger();
+
+    /** Yenilenmeyen, 10 token'lık tek bir bucket */
+    private final AtomicLong bucket = new AtomicLong(10);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    /** Script cevabının gecikmesi; sıfırdan büyükse eşzamanlı istekler aynı lease'i bekler */
+    private volatile Duration redisLatency = Duration.ZERO;
+
+    private LeasedRedisRateLimiter rateLimiter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenAnswer(invocation -> {
+            scriptCalls.incrementAndGet();
+            List<String> args = invocation.getArgument(2);
+            List<Long> result = new ArrayList<>();
+            for (int i = 0; i < args.size() / 3; i++) {
+                long wanted = Long.parseLong(args.get(3 * i + 2));
+                long granted = Math.min(wanted, bucket.get());
+                result.add(granted);
+                result.add(bucket.addAndGet(-granted));
+            }
+            return redisLatency.isZero() ? Flux.just(result) : Flux.just(result).delayElements(redisLatency);
+        });
+
+        rateLimiter = rateLimiter(Duration.ofSeconds(5), 2);
+    }
+
+    @Test
+    void isAllowed_shouldServeRequestsFromLease() {
+        int allowed = 0;
+        for (int i = 0; i < 15; i++) {
+            RateLimiter.Response response = rateLimiter.isAllowed("authentication-service", "user-1").block();
+            if (response.isAllowed()) {
+                allowed++;
+            }
+        }
+
+        // 1 çağrı 10 token'lık lease için, 1 çağrı boş bucket'ı görmek için; kalan red kararları yerelde verilir
+        assertEquals(10, allowed);
+        assertEquals(2, scriptCalls.get());
+        assertEquals(1 - 2 / 15.0, meterRegistry.get("gateway.rate-limiter.leased.calls-saved-ratio").gauge().value(), 0.001);
+        assertEquals(13, meterRegistry.get("gateway.rate-limiter.leased.calls-saved").counter().count());
+    }
+
+    @Test
+    void isAllowed_shouldAllowConcurrentBurstUpToBucketCapacity() {
+        // Hız 5 ve 250ms ile ilk lease 2 token'dır; lease'i bekleyen diğer istekler bucket'ta token kaldıkça
+        // reddedilmek yerine yeni lease alır, yani RedisRateLimiter gibi burst'ün tamamı kabul edilir
+        redisLatency = Duration.ofMillis(20);
+        LeasedRedisRateLimiter burstLimiter = rateLimiter(Duration.ofMillis(250), 5);
+
+        List<Boolean> decisions = Flux.range(0, 10)
+                .flatMap(i -> burstLimiter.isAllowed("authentication-service", "user-1"))
+                .map(RateLimiter.Response::isAllowed)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(10, decisions.stream().filter(allowed -> allowed).count());
+        assertEquals(0, bucket.get());
+        assertFalse(burstLimiter.isAllowed("authentication-service", "user-1").block(Duration.ofSeconds(5)).isAllowed());
+    }
+
+    private LeasedRedisRateLimiter rateLimiter(Duration leaseTtl, int replenishRate) {
+        LeasedRedisRateLimiter limiter = new LeasedRedisRateLimiter(redisTemplate, null, meterRegistry,
+                leaseTtl, 100, 256, 4, "test:");
+        limiter.getConfig().put("authentication-service", new LeasedRedisRateLimiter.Config()
+                .setReplenishRate(replenishRate)
+                .setBurstCapacity(10));
+        return limiter;
+    }
+}
@@ -0,0 +1,52 @@
+package com.modernbank.api_gateway.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.test.StepVerifier;
+
+class LocalRateLimiterTest {
+
+    private LocalRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new LocalRateLimiter(null,
+                new StaticListableBeanFactory().getBeanProvider(ReactiveStringRedisTemplate.class),
+                false, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(rateLimiter, "includeHeaders", true);
+        rateLimiter.getConfig().put("authentication-service", new LocalRateLimiter.Config()
+                .setReplenishRate(1)
+                .setBurstCapacity(3));
+    }
+
+    @Test
+    void isAllowed_shouldAllowBurstThenDeny() {
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            String expected = String.valueOf(remaining);
+            StepVerifier.create(rateLimiter.isAllowed("authentication-service", "user-1"))
+                    .expectNextMatches(response -> response.isAllowed()
+                            && expected.equals(response.getHeaders().get(RedisRateLimiter.REMAINING_HEADER)))
+                    .verifyComplete();
+        }
+
+        StepVerifier.create(rateLimiter.isAllowed("authentication-service", "user-1"))
+                .expectNextMatches(response -> !response.isAllowed())
+                .verifyComplete();
+    }
+
+    @Test
+    void isAllowed_shouldKeepSeparateBucketsPerKey() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.isAllowed("authentication-service", "user-1").block();
+        }
+
+        StepVerifier.create(rateLimiter.isAllowed("authentication-service", "user-2"))
+                .expectNextMatches(response -> response.isAllowed())
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,133 @@
+package com.modernbank.api_gateway.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.filter.factory.AddRequestHeaderGatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.format.support.DefaultFormattingConversionService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ReloadableRouteDefinitionLocatorTest {
+
+    private static final String LOANS = """
+            [{"id": "loan-service", "uri": "http://loan:8080",
+              "predicates": ["Path=/loan/**"], "filters": ["AddRequestHeader=X-Source, gateway"]}]
+            """;
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+
+    private Path file;
+
+    private ReloadableRouteDefinitionLocator locator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        file = dir.resolve("routes.json");
+
+        RouteDefinition account = new RouteDefinition("account-service=http://account:8080,Path=/account/**");
+        GatewayProperties gatewayProperties = new GatewayProperties();
+        gatewayProperties.setRoutes(List.of(account));
+
+        ConfigurationService configurationService = new ConfigurationService(new StaticListableBeanFactory(),
+                DefaultFormattingConversionService::new, () -> null);
+        locator = new ReloadableRouteDefinitionLocator(publisher, mock(ObjectProvider.class), gatewayProperties,
+                List.of(new PathRoutePredicateFactory()), List.of(new AddRequestHeaderGatewayFilterFactory()), configurationService,
+                "file", file.toString(), "gateway:routes", Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @Test
+    void reload_shouldApplyChangedFileAndPublishRefreshOnce() throws IOException {
+        Files.writeString(file, LOANS);
+
+        assertTrue(locator.reload().block());
+        assertFalse(locator.reload().block());
+
+        List<RouteDefinition> routes = locator.getRouteDefinitions().collectList().block();
+        assertEquals(1, routes.size());
+        assertEquals("loan-service", routes.get(0).getId());
+        assertEquals("Path", routes.get(0).getPredicates().get(0).getName());
+        verify(publisher, times(1)).publishEvent(any(RefreshRoutesEvent.class));
+        assertEquals(1, reloads("applied"));
+        assertEquals(1, meterRegistry.get("gateway.routes.dynamic").gauge().value());
+    }
+
+    @Test
+    void reload_shouldKeepPreviousTableWhenNewOneIsInvalid() throws IOException {
+        Files.writeString(file, LOANS);
+        locator.reload().block();
+
+        Files.writeString(file, "[{\"id\": \"loan-service\", ");
+        assertFalse(locator.reload().block());
+
+        Files.writeString(file, LOANS.replace("AddRequestHeader", "NoSuchFilter"));
+        assertFalse(locator.reload().block());
+
+        Files.writeString(file, LOANS.replace("loan-service", "account-service"));
+        assertFalse(locator.reload().block());
+
+        assertEquals(List.of("loan-service"), locator.getRouteDefinitions().map(RouteDefinition::getId).collectList().block());
+        verify(publisher, times(1)).publishEvent(any(RefreshRoutesEvent.class));
+        assertEquals(3, reloads("rejected"));
+    }
+
+    @Test
+    void reload_shouldRejectTableThatCannotBeConvertedToRoutes() throws IOException {
+        Files.writeString(file, LOANS);
+        locator.reload().block();
+
+        // Adlar doğru, ama pattern ve uri ancak route'a çevrilirken hata verir
+        Files.writeString(file, LOANS.replace("/loan/**", "/loan/{id"));
+        assertFalse(locator.reload().block());
+
+        Files.writeString(file, LOANS.replace("http://loan:8080", "loan-service"));
+        assertFalse(locator.reload().block());
+
+        assertEquals(List.of("loan-service"), locator.getRouteDefinitions().map(RouteDefinition::getId).collectList().block());
+        assertEquals("/loan/**", locator.getRouteDefinitions().blockFirst().getPredicates().get(0).getArgs().values().iterator().next());
+        verify(publisher, times(1)).publishEvent(any(RefreshRoutesEvent.class));
+        assertEquals(2, reloads("rejected"));
+        assertEquals(1, meterRegistry.get("gateway.routes.dynamic").gauge().value());
+    }
+
+    @Test
+    void reload_shouldFailWithoutTouchingTableWhenFileIsMissing() throws IOException {
+        Files.writeString(file, LOANS);
+        locator.reload().block();
+        Files.delete(file);
+
+        assertFalse(locator.reload().onErrorReturn(false).block());
+        assertEquals(1, locator.getRouteDefinitions().count().block());
+    }
+
+    private double reloads(String result) {
+        return meterRegistry.get("gateway.routes.reloads").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,138 @@
+package com.modernbank.api_gateway.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestBodyGuardGatewayFilterFactoryTest {
+
+    private static final String ROUTE = "transaction-service";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RequestBodyGuardGatewayFilterFactory factory = new RequestBodyGuardGatewayFilterFactory(meterRegistry,
+            DataSize.ofKilobytes(1), DataSize.ofKilobytes(1), Duration.ofMillis(100), Duration.ofMillis(200));
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+
+    private final List<NettyDataBuffer> allocated = new CopyOnWriteArrayList<>();
+
+    /** Gövdeyi NettyRoutingFilter gibi okuyup gönderilen buffer'ları bırakır */
+    private final AtomicLong forwardedBytes = new AtomicLong();
+
+    private final GatewayFilterChain upstream = exchange -> exchange.getRequest().getBody()
+            .doOnNext(buffer -> {
+                forwardedBytes.addAndGet(buffer.readableByteCount());
+                DataBufferUtils.release(buffer);
+            })
+            .then();
+
+    @Test
+    void filter_shouldRejectDeclaredOversizedBodyWithoutForwarding() {
+        AtomicBoolean forwarded = new AtomicBoolean();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/transaction/api/v1/transfer")
+                .contentLength(4096)
+                .body(Flux.defer(() -> {
+                    forwarded.set(true);
+                    return chunks(4, 1024);
+                })));
+
+        filter(new RequestBodyGuardGatewayFilterFactory.Config()).filter(exchange, upstream).block();
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exchange.getResponse().getStatusCode());
+        assertEquals("close", exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONNECTION));
+        assertFalse(forwarded.get());
+        assertEquals(1, rejected("too-large"));
+    }
+
+    @Test
+    void filter_shouldAbortStreamedBodyOnceLimitIsExceededAndReleaseBuffers() {
+        MockServerWebExchange exchange = chunked(chunks(10, 300));
+
+        filter(new RequestBodyGuardGatewayFilterFactory.Config()).filter(exchange, upstream).block();
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exchange.getResponse().getStatusCode());
+        // Dördüncü parça limiti aşar; sonrakiler hiç okunmaz
+        assertEquals(900, forwardedBytes.get());
+        assertEquals(4, allocated.size());
+        allocated.forEach(buffer -> assertEquals(0, buffer.getNativeBuffer().refCnt()));
+    }
+
+    @Test
+    void filter_shouldRejectTrickledAndStalledBodiesWith408() {
+        MockServerWebExchange trickled = chunked(Flux.interval(Duration.ofMillis(20)).take(50)
+                .concatMap(i -> chunks(1, 10)));
+        filter(new RequestBodyGuardGatewayFilterFactory.Config()).filter(trickled, upstream).block(Duration.ofSeconds(5));
+        assertEquals(HttpStatus.REQUEST_TIMEOUT, trickled.getResponse().getStatusCode());
+        assertEquals(1, rejected("too-slow"));
+
+        MockServerWebExchange stalled = chunked(chunks(1, 100).concatWith(Flux.never()));
+        filter(new RequestBodyGuardGatewayFilterFactory.Config()).filter(stalled, upstream).block(Duration.ofSeconds(5));
+        assertEquals(HttpStatus.REQUEST_TIMEOUT, stalled.getResponse().getStatusCode());
+        assertEquals(1, rejected("idle"));
+        allocated.forEach(buffer -> assertEquals(0, buffer.getNativeBuffer().refCnt()));
+    }
+
+    @Test
+    void filter_shouldForwardBodyWithinRouteLimits() {
+        RequestBodyGuardGatewayFilterFactory.Config config = new RequestBodyGuardGatewayFilterFactory.Config();
+        config.setMaxSize(DataSize.ofKilobytes(8));
+        config.setMinRate(DataSize.ofBytes(0));
+        MockServerWebExchange exchange = chunked(chunks(5, 1024));
+
+        filter(config).filter(exchange, upstream).block();
+
+        assertNull(exchange.getResponse().getStatusCode());
+        assertEquals(5 * 1024, forwardedBytes.get());
+        assertTrue(meterRegistry.get("gateway.request-body.rejected").counters().stream().allMatch(c -> c.count() == 0));
+    }
+
+    private GatewayFilter filter(RequestBodyGuardGatewayFilterFactory.Config config) {
+        config.setRouteId(ROUTE);
+        return factory.apply(config);
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("gateway.request-body.rejected").tag("route", ROUTE).tag("reason", reason).counter().count();
+    }
+
+    private static MockServerWebExchange chunked(Flux<DataBuffer> body) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/transaction/api/v1/transfer")
+                .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                .body(body));
+    }
+
+    /** Buffer'lar istendikçe oluşturulur, böylece sadece okunanlar takip edilir */
+    private Flux<DataBuffer> chunks(int count, int size) {
+        return Flux.range(0, count).map(i -> {
+            NettyDataBuffer buffer = bufferFactory.allocateBuffer(size);
+            buffer.writePosition(size);
+            allocated.add(buffer);
+            return buffer;
+        });
+    }
+}
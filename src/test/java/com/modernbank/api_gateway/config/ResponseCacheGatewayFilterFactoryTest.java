@@ -0,0 +1,167 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.api.response.UserInfoResponse;
+import com.modernbank.api_gateway.service.AuthenticatedUser;
+import com.modernbank.api_gateway.service.ResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.modernbank.api_gateway.constants.ExchangeAttributeKey.AUTHENTICATED_USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"atms\":[1,2,3]}";
+
+    private final List<HttpHeaders> upstreamRequests = new ArrayList<>();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ResponseCache responseCache = new ResponseCache(DataSize.ofMegabytes(1), DataSize.ofKilobytes(64),
+                Duration.ofMinutes(5), meterRegistry);
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setRouteId("atm-reporting-service");
+        filter = new ResponseCacheGatewayFilterFactory(responseCache, meterRegistry).apply(config);
+    }
+
+    @Test
+    void filter_shouldServeFreshEntryWithoutUpstream() {
+        GatewayFilterChain upstream = upstream("max-age=60", null);
+
+        MockServerWebExchange first = execute("42", upstream, null);
+        MockServerWebExchange second = execute("42", upstream, null);
+
+        assertEquals(1, upstreamRequests.size());
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals(BODY, second.getResponse().getBodyAsString().block());
+        assertEquals("private, max-age=60", second.getResponse().getHeaders().getCacheControl());
+        assertEquals(BODY, first.getResponse().getBodyAsString().block());
+        assertEquals(0.5, hitRatio(), 0.01);
+    }
+
+    @Test
+    void filter_shouldNotShareEntriesBetweenUsers() {
+        GatewayFilterChain upstream = upstream("max-age=60", null);
+
+        execute("42", upstream, null);
+        execute("43", upstream, null);
+
+        assertEquals(2, upstreamRequests.size());
+    }
+
+    @Test
+    void filter_shouldRevalidateStaleEntryWithETag() {
+        execute("42", upstream("no-cache", "\"v1\""), null);
+
+        MockServerWebExchange revalidated = execute("42", notModified(), null);
+
+        assertEquals("\"v1\"", upstreamRequests.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(HttpStatus.OK, revalidated.getResponse().getStatusCode());
+        assertEquals(BODY, revalidated.getResponse().getBodyAsString().block());
+        assertEquals(1.0, meterRegistry.get("gateway.response-cache.requests").tag("result", "revalidated").counter().count());
+    }
+
+    @Test
+    void filter_shouldAnswerMatchingClientETagWithNotModified() {
+        execute("42", upstream("max-age=60", "\"v1\""), null);
+
+        MockServerWebExchange conditional = execute("42", upstream("max-age=60", "\"v1\""), "\"v1\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertEquals(1, upstreamRequests.size());
+    }
+
+    @Test
+    void filter_shouldNotServeEncodedEntryToClientWithoutAcceptEncoding() {
+        // Upstream, istemci kabul ediyorsa gövdeyi gzip'ler
+        GatewayFilterChain upstream = exchange -> {
+            boolean gzip = exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING) != null;
+            if (gzip) {
+                exchange.getResponse().getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                exchange.getResponse().getHeaders().set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            return upstream("max-age=60", null).filter(exchange);
+        };
+
+        MockServerWebExchange gzipped = execute(MockServerHttpRequest.get("/atm/api/v1/atms?city=izmir")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"), upstream, "42");
+        MockServerWebExchange plain = execute("42", upstream, null);
+
+        assertEquals("gzip", gzipped.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(2, upstreamRequests.size());
+        assertNull(plain.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(BODY, plain.getResponse().getBodyAsString().block());
+
+        // Encoding'siz cevap saklanır ve sonraki istek cache'ten döner
+        execute("42", upstream, null);
+        assertEquals(2, upstreamRequests.size());
+    }
+
+    private MockServerWebExchange execute(String userId, GatewayFilterChain upstream, String ifNoneMatch) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/atm/api/v1/atms?city=izmir");
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return execute(request, upstream, userId);
+    }
+
+    private MockServerWebExchange execute(MockServerHttpRequest.BaseBuilder<?> request, GatewayFilterChain upstream,
+                                          String userId) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(AUTHENTICATED_USER,
+                new AuthenticatedUser(new UserInfoResponse(userId, "user@modernbank.com", List.of("ROLE_USER")), null));
+        filter.filter(exchange, upstream).block();
+        return exchange;
+    }
+
+    private GatewayFilterChain upstream(String cacheControl, String etag) {
+        return exchange -> {
+            upstreamRequests.add(exchange.getRequest().getHeaders());
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            headers.setCacheControl("private, " + cacheControl);
+            if (etag != null) {
+                headers.setETag(etag);
+            }
+            exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, Set.copyOf(headers.keySet()));
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                    .wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private GatewayFilterChain notModified() {
+        return exchange -> {
+            upstreamRequests.add(exchange.getRequest().getHeaders());
+            exchange.getResponse().getHeaders().setCacheControl("private, no-cache");
+            exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, Set.of(HttpHeaders.CACHE_CONTROL));
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_MODIFIED);
+            return exchange.getResponse().writeWith(Mono.empty());
+        };
+    }
+
+    private double hitRatio() {
+        return meterRegistry.get("gateway.response-cache.hit-ratio").tag("route", "atm-reporting-service").gauge().value();
+    }
+}
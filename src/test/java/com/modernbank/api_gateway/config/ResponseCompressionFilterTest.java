@@ -0,0 +1,155 @@
+package com.modernbank.api_gateway.config;
+
+import com.modernbank.api_gateway.util.ErrorBodies;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCompressionFilterTest {
+
+    private static final String LARGE_JSON = "{\"transactions\":[" + "{\"id\":1,\"amount\":\"100.00\",\"currency\":\"TRY\"},".repeat(200) + "{}]}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ResponseCompressionFilter filter = new ResponseCompressionFilter(meterRegistry, true,
+            DataSize.ofKilobytes(1), 6, List.of(MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN));
+
+    @Test
+    void filter_shouldGzipStreamedJsonBody() throws IOException {
+        MockServerWebExchange exchange = exchange("gzip, deflate, br");
+
+        execute(exchange, e -> {
+            ServerHttpResponse response = e.getResponse();
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setETag("\"v1\"");
+            int half = LARGE_JSON.length() / 2;
+            return response.writeWith(Flux.just(LARGE_JSON.substring(0, half), LARGE_JSON.substring(half))
+                    .map(part -> response.bufferFactory().wrap(part.getBytes(StandardCharsets.UTF_8))));
+        });
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING));
+        assertEquals("W/\"v1\"", headers.getETag());
+        byte[] body = body(exchange);
+        assertTrue(body.length < LARGE_JSON.length() / 4);
+        assertEquals(LARGE_JSON, new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(LARGE_JSON.length(), meterRegistry.get("gateway.compression.bytes.in").counter().count());
+        assertEquals(body.length, meterRegistry.get("gateway.compression.bytes.out").counter().count());
+    }
+
+    @Test
+    void filter_shouldHonourQualityValues() throws IOException {
+        MockServerWebExchange exchange = exchange("gzip;q=0, deflate");
+
+        execute(exchange, e -> writeJson(e.getResponse(), LARGE_JSON));
+
+        assertEquals("deflate", exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        InputStream inflated = new InflaterInputStream(new ByteArrayInputStream(body(exchange)));
+        assertEquals(LARGE_JSON, new String(inflated.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void filter_shouldSkipSmallAlreadyEncodedAndUnlistedBodies() {
+        MockServerWebExchange small = exchange("gzip");
+        execute(small, e -> writeJson(e.getResponse(), "{\"status\":\"OK\"}"));
+        assertNull(small.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        MockServerWebExchange encoded = exchange("gzip");
+        execute(encoded, e -> {
+            e.getResponse().getHeaders().set(HttpHeaders.CONTENT_ENCODING, "br");
+            return writeJson(e.getResponse(), LARGE_JSON);
+        });
+        assertEquals(LARGE_JSON.length(), body(encoded).length);
+
+        MockServerWebExchange stream = exchange("gzip");
+        execute(stream, e -> {
+            ServerHttpResponse response = e.getResponse();
+            response.getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(LARGE_JSON.getBytes(StandardCharsets.UTF_8))));
+        });
+        assertNull(stream.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void errorBodies_shouldServePrecompressedBodyWhenGzipAccepted() throws IOException {
+        ErrorBodies.FixedBody body = ErrorBodies.fixed("ERR-503",
+                "Servis geçici olarak kullanılamıyor. Servis geçici olarak kullanılamıyor. Lütfen daha sonra tekrar deneyiniz.");
+
+        MockServerWebExchange first = exchange("gzip");
+        execute(first, e -> ErrorBodies.write(e, HttpStatus.SERVICE_UNAVAILABLE, body));
+        MockServerWebExchange second = exchange("gzip");
+        execute(second, e -> ErrorBodies.write(e, HttpStatus.SERVICE_UNAVAILABLE, body));
+
+        assertEquals("gzip", first.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body.bytes(), new GZIPInputStream(new ByteArrayInputStream(body(first))).readAllBytes());
+        assertArrayEquals(body(first), body(second));
+        // Önceden sıkıştırılmış gövde filtrede tekrar sıkıştırılmaz
+        assertTrue(meterRegistry.find("gateway.compression.bytes.in").counters().isEmpty());
+    }
+
+    @Test
+    void errorBodies_shouldWriteDynamicBodyUncompressed() {
+        byte[] body = ErrorBodies.baseResponse("BAD_CREDENTIALS_PROVIDED",
+                "Kullanıcı doğrulaması başarısız: " + "{\"error\":\"invalid token\"}".repeat(20));
+
+        MockServerWebExchange exchange = exchange("gzip");
+        execute(exchange, e -> ErrorBodies.write(e, HttpStatus.UNAUTHORIZED, body));
+
+        // Hata yolunda istek başına sıkıştırma yapılmaz
+        assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, body(exchange));
+        assertTrue(meterRegistry.find("gateway.compression.bytes.in").counters().isEmpty());
+    }
+
+    /**
+     * @param handler filtrenin zincire verdiği (response'u sarılmış) exchange'e cevabı yazar
+     */
+    private void execute(MockServerWebExchange exchange, Function<ServerWebExchange, Mono<Void>> handler) {
+        WebFilterChain chain = handler::apply;
+        filter.filter(exchange, chain).block();
+    }
+
+    private static Mono<Void> writeJson(ServerHttpResponse response, String json) {
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(json.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static MockServerWebExchange exchange(String acceptEncoding) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/transaction/api/v1/history")
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+    }
+
+    private static byte[] body(MockServerWebExchange exchange) {
+        DataBuffer joined = DataBufferUtils.join(exchange.getResponse().getBody()).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,102 @@
+package com.modernbank.api_gateway.loadtest;
+
+import io.netty.handler.codec.http.HttpMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sabit eşzamanlılıkla (kapalı döngü) bir route'a istek gönderir ve her isteğin gövdesi tamamen okunana kadar
+ * geçen süreyi kaydeder. Ölçüm öncesinde aynı route'a ısınma istekleri gönderilir.
+ */
+class LoadGenerator implements AutoCloseable {
+
+    private final ConnectionProvider connectionProvider;
+
+    private final HttpClient httpClient;
+
+    private final int concurrency;
+
+    LoadGenerator(String gatewayUrl, int concurrency) {
+        this.concurrency = concurrency;
+        this.connectionProvider = ConnectionProvider.builder("loadtest")
+                .maxConnections(concurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.httpClient = HttpClient.create(connectionProvider)
+                .baseUrl(gatewayUrl)
+                .responseTimeout(Duration.ofSeconds(30));
+    }
+
+    RouteResult run(Scenario scenario, int warmupRequests, int requests) {
+        execute(scenario, warmupRequests, new long[warmupRequests], new AtomicInteger());
+
+        long[] latencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        execute(scenario, requests, latencies, failures);
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new RouteResult(scenario.route(), requests, failures.get(), elapsed, latencies);
+    }
+
+    private void execute(Scenario scenario, int requests, long[] latencies, AtomicInteger failures) {
+        HttpClient client = scenario.token() == null
+                ? httpClient
+                : httpClient.headers(headers -> headers.set("Authorization", "Bearer " + scenario.token()));
+
+        Flux.range(0, requests)
+                .flatMap(i -> Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return client.request(scenario.method())
+                            .uri(scenario.path())
+                            .responseSingle((response, body) -> body.asByteArray()
+                                    .then(Mono.just(response.status().code()))
+                                    .defaultIfEmpty(response.status().code()))
+                            .onErrorReturn(-1)
+                            .doOnNext(status -> {
+                                latencies[i] = System.nanoTime() - start;
+                                if (status < 200 || status >= 300) {
+                                    failures.incrementAndGet();
+                                }
+                            });
+                }), concurrency)
+                .blockLast();
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.disposeLater().block();
+    }
+
+    record Scenario(String route, HttpMethod method, String path, String token) {
+    }
+
+    record RouteResult(String route, int requests, int failures, long elapsedNanos, long[] sortedLatencies) {
+
+        static String header() {
+            return String.format(Locale.ROOT, "%-24s %9s %8s %10s %9s %9s %9s %9s",
+                    "route", "requests", "non-2xx", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        }
+
+        String format() {
+            return String.format(Locale.ROOT, "%-24s %9d %8d %10.1f %9.3f %9.3f %9.3f %9.3f",
+                    route, requests, failures,
+                    requests / (elapsedNanos / 1_000_000_000.0),
+                    percentile(0.50), percentile(0.99), percentile(0.999),
+                    sortedLatencies[sortedLatencies.length - 1] / 1_000_000.0);
+        }
+
+        double percentile(double p) {
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
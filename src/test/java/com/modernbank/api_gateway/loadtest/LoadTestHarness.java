@@ -0,0 +1,139 @@
+package com.modernbank.api_gateway.loadtest;
+
+import com.modernbank.api_gateway.ApiGatewayApplication;
+import com.modernbank.api_gateway.loadtest.LoadGenerator.RouteResult;
+import com.modernbank.api_gateway.loadtest.LoadGenerator.Scenario;
+import io.netty.handler.codec.http.HttpMethod;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gateway'i gerçek route tablosu ile ayağa kaldırır; tüm {@code *_SERVICE_URL}'ler süreç içi
+ * {@link StubUpstream}'lere, Redis ise {@link RedisStub}'a bağlanır. Ardından her route'a yük gönderip
+ * p50 / p99 / p999 gecikme raporunu yazdırır. Ağ erişimi gerektirmez.
+ *
+ * <pre>./mvnw -P loadtest verify -Dloadtest.requests=20000 -Dloadtest.concurrency=64</pre>
+ *
+ * Ayarlar (system property):
+ * <ul>
+ *     <li>{@code loadtest.requests} / {@code loadtest.warmup}: route başına ölçülen / ısınma istek sayısı</li>
+ *     <li>{@code loadtest.concurrency}: eşzamanlı istek sayısı</li>
+ *     <li>{@code loadtest.upstream-latency-ms}: stub servislerin her cevaptan önce beklediği süre</li>
+ *     <li>{@code loadtest.payload-bytes}: stub servis cevap gövdesi boyutu</li>
+ *     <li>{@code loadtest.cache-control}: stub servislerin cevaplarına eklediği {@code Cache-Control} (varsayılan yok)</li>
+ *     <li>{@code loadtest.<route>.upstream-latency-ms} / {@code loadtest.<route>.payload-bytes} / {@code loadtest.<route>.cache-control}:
+ *     route bazında override (ör. {@code loadtest.account.payload-bytes})</li>
+ *     <li>{@code loadtest.overrides}: Maven profili üzerinden route override'ları, virgülle ayrılmış
+ *     {@code <route>.<ayar>=<değer>} listesi (ör. {@code account.payload-bytes=16384,mcp.upstream-latency-ms=50})</li>
+ * </ul>
+ */
+public class LoadTestHarness {
+
+    /** Route adı → servis URL ortam değişkeni ve ölçülen istek */
+    private static final Map<String, String> SERVICE_URLS = new LinkedHashMap<>();
+
+    static {
+        SERVICE_URLS.put("account", "ACCOUNT_SERVICE_URL");
+        SERVICE_URLS.put("transaction", "TRANSACTION_SERVICE_URL");
+        SERVICE_URLS.put("invoice", "INVOICE_SERVICE_URL");
+        SERVICE_URLS.put("atm", "ATM_REPORTING_SERVICE_URL");
+        SERVICE_URLS.put("notification", "NOTIFICATION_SERVICE_URL");
+        SERVICE_URLS.put("mcp", "MCP_SERVICE_URL");
+        SERVICE_URLS.put("authentication", "AUTHENTICATION_SERVICE_URL");
+    }
+
+    public static void main(String[] args) throws Exception {
+        applyOverrides(System.getProperty("loadtest.overrides", ""));
+        int requests = Integer.getInteger("loadtest.requests", 10_000);
+        int warmup = Integer.getInteger("loadtest.warmup", 2_000);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+
+        List<StubUpstream> upstreams = new ArrayList<>();
+        // System property'ler application.yml'dan önceliklidir
+        Map<String, String> properties = new HashMap<>();
+        for (Map.Entry<String, String> service : SERVICE_URLS.entrySet()) {
+            String route = service.getKey();
+            StubUpstream upstream = new StubUpstream(route,
+                    Duration.ofMillis(Long.getLong("loadtest." + route + ".upstream-latency-ms", Long.getLong("loadtest.upstream-latency-ms", 5))),
+                    Integer.getInteger("loadtest." + route + ".payload-bytes", Integer.getInteger("loadtest.payload-bytes", 1024)),
+                    System.getProperty("loadtest." + route + ".cache-control", System.getProperty("loadtest.cache-control", "")));
+            upstreams.add(upstream);
+            properties.put(service.getValue(), upstream.url());
+        }
+
+        try (RedisStub redis = new RedisStub()) {
+            properties.put("REDIS_HOST", "127.0.0.1");
+            properties.put("spring.data.redis.port", String.valueOf(redis.port()));
+            properties.put("server.port", "0");
+            properties.put("logging.file.name", "target/loadtest/api-gateway.log");
+            // Rapor okunabilsin diye konsola log yazılmaz
+            properties.put("logging.pattern.console", "");
+            // devtools test classpath'inde: restart classloader'ı ve LiveReload ölçümü bozmasın
+            properties.put("spring.devtools.restart.enabled", "false");
+            properties.put("spring.devtools.livereload.enabled", "false");
+            properties.forEach(System::setProperty);
+
+            try (ConfigurableApplicationContext context = SpringApplication.run(ApiGatewayApplication.class, args)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                String token = token();
+
+                System.out.printf("%nGateway on port %d, %d requests per route (warmup %d), concurrency %d%n%n",
+                        port, requests, warmup, concurrency);
+                System.out.println(RouteResult.header());
+
+                try (LoadGenerator generator = new LoadGenerator("http://127.0.0.1:" + port, concurrency)) {
+                    for (Scenario scenario : scenarios(token)) {
+                        System.out.println(generator.run(scenario, warmup, requests).format());
+                    }
+                }
+                System.out.printf("%nRate limiter Redis calls: %d%n", redis.evalCalls());
+            }
+        } finally {
+            upstreams.forEach(StubUpstream::close);
+        }
+    }
+
+    private static void applyOverrides(String overrides) {
+        for (String override : overrides.split(",")) {
+            int separator = override.indexOf('=');
+            if (separator > 0) {
+                System.setProperty("loadtest." + override.substring(0, separator).trim(), override.substring(separator + 1).trim());
+            }
+        }
+    }
+
+    private static List<Scenario> scenarios(String token) {
+        return List.of(
+                new Scenario("account", HttpMethod.GET, "/account/api/v1/accounts", token),
+                new Scenario("transaction", HttpMethod.GET, "/transaction/api/v1/transactions", token),
+                new Scenario("invoice", HttpMethod.GET, "/invoice/api/v1/invoices", token),
+                new Scenario("atm", HttpMethod.GET, "/atm/api/v1/reports", token),
+                new Scenario("notification", HttpMethod.GET, "/notification/api/v1/notifications", token),
+                new Scenario("mcp", HttpMethod.GET, "/mcpserver/api/v1/status", token),
+                // Public route, RequestRateLimiter (Redis) üzerinden geçer
+                new Scenario("authentication", HttpMethod.POST, "/authentication/login", null)
+        );
+    }
+
+    /**
+     * Stub authentication servisi her token'ı kabul eder; precheck'ten geçmesi için JWT formatında ve
+     * ileri tarihli {@code exp} içeren bir token üretilir.
+     */
+    private static String token() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        return encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(("{\"sub\":\"42\",\"exp\":" + exp + "}").getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString("loadtest".getBytes(StandardCharsets.UTF_8));
+    }
+}
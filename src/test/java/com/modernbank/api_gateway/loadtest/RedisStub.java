@@ -0,0 +1,146 @@
+package com.modernbank.api_gateway.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limiter'ın ihtiyaç duyduğu kadar RESP konuşan, bellek içi Redis yerine geçen sunucu.
+ * Gerçek bir Redis kurulamayan (ağ erişimi olmayan) ortamda yük testi için kullanılır.
+ *
+ * <ul>
+ *     <li>{@code HELLO}: hata döner, Lettuce RESP2'ye düşer</li>
+ *     <li>{@code EVALSHA}: {@code NOSCRIPT} döner, Spring Data Redis script'i {@code EVAL} ile tekrar gönderir</li>
+ *     <li>{@code EVAL}: rate limiter script'inin cevabı olarak her zaman {@code [1, n]} (izin verildi) döner</li>
+ *     <li>{@code PING}: {@code PONG}; diğer tüm komutlar {@code OK}</li>
+ * </ul>
+ *
+ * Lettuce tek bir bağlantı üzerinden pipelining yaptığı için bağlantı başına bir thread yeterlidir.
+ */
+class RedisStub implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+
+    private final AtomicLong evalCalls = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    RedisStub() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "redis-stub-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    long evalCalls() {
+        return evalCalls.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Thread connection = new Thread(() -> serve(socket), "redis-stub-connection");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Redis stub accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            while (running) {
+                List<String> command = readCommand(in);
+                out.write(reply(command));
+                // Pipeline'daki komutlar bitene kadar cevapları biriktir
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (EOFException e) {
+            // istemci bağlantıyı kapattı
+        } catch (IOException e) {
+            if (running) {
+                System.err.println("Redis stub connection failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private byte[] reply(List<String> command) {
+        String name = command.isEmpty() ? "" : command.get(0).toUpperCase(Locale.ROOT);
+        String reply = switch (name) {
+            case "HELLO" -> "-ERR unknown command 'HELLO'\r\n";
+            case "PING" -> "+PONG\r\n";
+            case "EVALSHA" -> "-NOSCRIPT No matching script. Please use EVAL.\r\n";
+            case "EVAL" -> {
+                evalCalls.incrementAndGet();
+                yield "*2\r\n:1\r\n:1000\r\n";
+            }
+            default -> "+OK\r\n";
+        };
+        return reply.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static List<String> readCommand(InputStream in) throws IOException {
+        String header = readLine(in);
+        if (header.isEmpty() || header.charAt(0) != '*') {
+            // inline komut (ör. telnet)
+            return List.of(header.trim().split("\\s+"));
+        }
+
+        int count = Integer.parseInt(header.substring(1));
+        List<String> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String bulkHeader = readLine(in);
+            int length = Integer.parseInt(bulkHeader.substring(1));
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException();
+            }
+            readLine(in);
+            args.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return args;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\r') {
+                in.read();
+                return line.toString();
+            }
+            line.append((char) c);
+        }
+        throw new EOFException();
+    }
+}
@@ -0,0 +1,72 @@
+package com.modernbank.api_gateway.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Gerçek downstream servis yerine çalışan Reactor Netty sunucusu. Her isteğe sabit bir gecikmeden sonra
+ * verilen boyutta bir JSON gövdesi ile 200 döner. {@code /authentication/validate} isteklerine ise gateway'in
+ * token doğrulaması için sabit bir kullanıcı döner.
+ */
+class StubUpstream implements AutoCloseable {
+
+    private static final byte[] USER_INFO = "{\"id\":\"42\",\"email\":\"loadtest@modernbank.com\",\"authorities\":[\"ROLE_USER\"]}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final String name;
+
+    private final DisposableServer server;
+
+    /**
+     * @param cacheControl boş değilse cevaplara eklenen {@code Cache-Control} header'ı (response cache ölçümleri için)
+     */
+    StubUpstream(String name, Duration latency, int payloadBytes, String cacheControl) {
+        this.name = name;
+        byte[] payload = payload(payloadBytes);
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> {
+                    byte[] body = request.path().endsWith("authentication/validate") ? USER_INFO : payload;
+                    response.header(HttpHeaderNames.CONTENT_TYPE, "application/json");
+                    if (!cacheControl.isEmpty()) {
+                        response.header(HttpHeaderNames.CACHE_CONTROL, cacheControl);
+                    }
+                    Mono<Void> send = response.sendByteArray(Mono.just(body))
+                            .then();
+                    // Gövde okunmadan cevap dönülürse bağlantı havuza geri konamaz
+                    Mono<Void> drain = request.receive().then();
+                    return latency.isZero()
+                            ? drain.then(send)
+                            : drain.then(Mono.delay(latency)).then(send);
+                })
+                .bindNow();
+    }
+
+    String name() {
+        return name;
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private static byte[] payload(int size) {
+        // {"data":"xxxx..."} — toplam boyut en az 12 byte
+        int padding = Math.max(size - 11, 1);
+        char[] data = new char[padding];
+        Arrays.fill(data, 'x');
+        return ("{\"data\":\"" + new String(data) + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
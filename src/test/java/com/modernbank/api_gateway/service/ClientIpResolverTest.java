@@ -0,0 +1,62 @@
+package com.modernbank.api_gateway.service;
+
+import com.modernbank.api_gateway.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(properties("10.0.0.0/8", "2001:db8::/32"));
+
+    @Test
+    void resolve_shouldIgnoreForwardedForFromUntrustedPeer() {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/authentication/login")
+                .remoteAddress(new InetSocketAddress("203.0.113.7", 51234))
+                .header(ClientIpResolver.X_FORWARDED_FOR, "198.51.100.1")
+                .build();
+
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void resolve_shouldSkipTrustedHopsFromTheRight() {
+        // İstemci soldaki adresi kendisi yazdı; load balancer gerçek adresini sona ekledi
+        MockServerHttpRequest request = MockServerHttpRequest.get("/authentication/login")
+                .remoteAddress(new InetSocketAddress("10.1.2.3", 443))
+                .header(ClientIpResolver.X_FORWARDED_FOR, "1.1.1.1, 203.0.113.7", "10.4.5.6")
+                .build();
+
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void resolve_shouldStopAtUnparsableHop() {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/authentication/login")
+                .remoteAddress(new InetSocketAddress("10.1.2.3", 443))
+                .header(ClientIpResolver.X_FORWARDED_FOR, "unknown, 10.4.5.6")
+                .build();
+
+        assertEquals("10.4.5.6", resolver.resolve(request));
+    }
+
+    @Test
+    void resolve_shouldHandleIpv6AndPorts() {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/authentication/login")
+                .remoteAddress(new InetSocketAddress("2001:db8::1", 443))
+                .header(ClientIpResolver.X_FORWARDED_FOR, "203.0.113.7:51234")
+                .build();
+
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    private static RateLimitProperties properties(String... trustedProxies) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setTrustedProxies(List.of(trustedProxies));
+        return properties;
+    }
+}
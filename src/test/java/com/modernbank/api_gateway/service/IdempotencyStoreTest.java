@@ -0,0 +1,113 @@
+package com.modernbank.api_gateway.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreTest {
+
+    private static final String FINGERPRINT = "POST /payment/transfer";
+
+    @Test
+    void local_shouldNotEvictPendingMarkerWhenFull() throws InterruptedException {
+        LocalIdempotencyStore store = new LocalIdempotencyStore(Duration.ofHours(1), Duration.ofMinutes(1), DataSize.ofKilobytes(8));
+        assertTrue(store.claim("in-flight", FINGERPRINT).block().acquired());
+
+        // Cache'in kat kat üstünde tamamlanmış cevap yazılır; boyut sınırı en eski cevapları çıkarana kadar beklenir
+        for (int i = 0; i < 64; i++) {
+            String owner = store.claim("done-" + i, FINGERPRINT).block().owner();
+            store.complete("done-" + i, owner, response(1024)).block();
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (completed(store, 64) > 8 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        IdempotencyStore.Claim claim = store.claim("in-flight", FINGERPRINT).block();
+        assertFalse(claim.acquired());
+        assertFalse(claim.existing().isCompleted());
+    }
+
+    @Test
+    void local_shouldNotReleaseOrOverwriteMarkerOfAnotherOwner() throws InterruptedException {
+        LocalIdempotencyStore store = new LocalIdempotencyStore(Duration.ofHours(1), Duration.ofMillis(100), DataSize.ofMegabytes(1));
+        String staleOwner = store.claim("key", FINGERPRINT).block().owner();
+
+        // İlk isteğin işareti lock-ttl ile düşer, anahtarı ikinci istek alır
+        Thread.sleep(200);
+        String owner = store.claim("key", FINGERPRINT).block().owner();
+
+        store.release("key", staleOwner).block();
+        store.complete("key", staleOwner, response(16)).block();
+        assertFalse(store.claim("key", FINGERPRINT).block().existing().isCompleted());
+
+        store.complete("key", owner, response(16)).block();
+        assertTrue(store.claim("key", FINGERPRINT).block().existing().isCompleted());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redis_shouldReleaseOnlyWithCompareAndDelete() {
+        ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        ReactiveValueOperations<String, String> valueOperations = mock(ReactiveValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenReturn(Mono.just(true), Mono.just(true), Mono.just(false));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenReturn(Flux.just(1L));
+
+        RedisIdempotencyStore store = new RedisIdempotencyStore(redisTemplate, Duration.ofHours(1), Duration.ofSeconds(15),
+                "gateway:idempotency:");
+        IdempotencyStore.Claim first = store.claim("key", FINGERPRINT).block();
+        IdempotencyStore.Claim second = store.claim("other", FINGERPRINT).block();
+        store.release("key", first.owner()).block();
+
+        // Her istek kendine özgü bir işaret yazar; bırakma sadece o işaret hâlâ duruyorsa siler
+        assertNotEquals(first.owner(), second.owner());
+        verify(valueOperations).setIfAbsent("gateway:idempotency:key", first.owner(), Duration.ofSeconds(15));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("gateway:idempotency:key")), eq(List.of(first.owner())));
+        verify(redisTemplate, never()).delete(anyString());
+
+        // Diğer node'lar işareti normal bir bekleme kaydı olarak okur
+        when(valueOperations.get("gateway:idempotency:other")).thenReturn(Mono.just(second.owner()));
+        IdempotentResponse pending = store.claim("other", FINGERPRINT).block().existing();
+        assertEquals(FINGERPRINT, pending.fingerprint());
+        assertFalse(pending.isCompleted());
+    }
+
+    /** Hâlâ saklanan tamamlanmış cevap sayısı; düşmüş anahtarlara yazılan işaretlerin ağırlığı sıfırdır */
+    private static int completed(LocalIdempotencyStore store, int keys) {
+        int completed = 0;
+        for (int i = 0; i < keys; i++) {
+            IdempotentResponse existing = store.claim("done-" + i, FINGERPRINT).block().existing();
+            if (existing != null && existing.isCompleted()) {
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    private static IdempotentResponse response(int bodySize) {
+        return new IdempotentResponse(FINGERPRINT, 201, Map.of(), new byte[bodySize]);
+    }
+}
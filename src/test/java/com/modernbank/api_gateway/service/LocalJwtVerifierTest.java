@@ -0,0 +1,93 @@
+package com.modernbank.api_gateway.service;
+
+import com.modernbank.api_gateway.exception.RemoteServiceException;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalJwtVerifierTest {
+
+    @TempDir
+    Path dir;
+
+    private RSAKey key;
+
+    private LocalJwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        key = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        Path jwks = dir.resolve("jwks.json");
+        Files.writeString(jwks, new JWKSet(key.toPublicJWK()).toString());
+
+        verifier = new LocalJwtVerifier("local", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(verifier, "jwksLocation", jwks.toUri().toString());
+        ReflectionTestUtils.setField(verifier, "publicKeyLocation", "");
+        ReflectionTestUtils.setField(verifier, "publicKeyId", "");
+        ReflectionTestUtils.setField(verifier, "refreshInterval", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(verifier, "clockSkew", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(verifier, "userIdClaim", "userId");
+        ReflectionTestUtils.setField(verifier, "emailClaim", "email");
+        ReflectionTestUtils.setField(verifier, "authoritiesClaim", "authorities");
+        verifier.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifier.stop();
+    }
+
+    @Test
+    void verify_shouldMapClaimsOfValidToken() throws JOSEException {
+        AuthenticatedUser user = verifier.verify(sign(claims().claim("email", "user@modernbank.com").build())).block();
+
+        assertEquals("42", user.getUserInfo().getId());
+        assertEquals("user@modernbank.com", user.getUserInfo().getEmail());
+        assertEquals(List.of("ROLE_USER"), user.getUserInfo().getAuthorities());
+    }
+
+    @Test
+    void verify_shouldRejectTokenWithNonStringEmailClaim() throws JOSEException {
+        String token = sign(claims().claim("email", 12345).build());
+
+        // ClassCastException ile 500 yerine geçersiz token olarak 401 dönmeli
+        RemoteServiceException e = assertThrows(RemoteServiceException.class, () -> verifier.verify(token).block());
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getStatus());
+    }
+
+    private JWTClaimsSet.Builder claims() {
+        return new JWTClaimsSet.Builder()
+                .subject("42")
+                .claim("authorities", List.of("ROLE_USER"))
+                .expirationTime(Date.from(Instant.now().plusSeconds(600)));
+    }
+
+    private String sign(JWTClaimsSet claims) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
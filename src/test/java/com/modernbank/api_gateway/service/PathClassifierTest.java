@@ -0,0 +1,35 @@
+package com.modernbank.api_gateway.service;
+
+import com.modernbank.api_gateway.config.PathRulesProperties;
+import com.modernbank.api_gateway.service.PathClassifier.PathClass;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PathClassifierTest {
+
+    private final PathClassifier classifier = new PathClassifier(new PathRulesProperties());
+
+    @Test
+    void classify_shouldMatchPublicPathsOnSegmentBoundary() {
+        assertEquals(PathClass.PUBLIC, classifier.classify("/authentication"));
+        assertEquals(PathClass.PUBLIC, classifier.classify("/authentication/login"));
+        assertEquals(PathClass.PUBLIC, classifier.classify("/account/api/v1/verification/user/123"));
+        assertEquals(PathClass.AUTHENTICATED, classifier.classify("/authenticationx/login"));
+    }
+
+    @Test
+    void classify_shouldMatchWebsocketPaths() {
+        assertEquals(PathClass.WEBSOCKET, classifier.classify("/notification/notification-websocket/info"));
+        assertEquals(PathClass.WEBSOCKET, classifier.classify("/chat-websocket"));
+        assertEquals(PathClass.AUTHENTICATED, classifier.classify("/notification/api/v1/messages"));
+    }
+
+    @Test
+    void classify_shouldMatchAdminPathsAnywhereInPath() {
+        assertEquals(PathClass.ADMIN, classifier.classify("/account/admin/users"));
+        assertEquals(PathClass.ADMIN, classifier.classify("/invoice/api/v1/cache-clear"));
+        assertEquals(PathClass.PUBLIC, classifier.classify("/authentication/admin/login"));
+        assertEquals(PathClass.AUTHENTICATED, classifier.classify("/account/api/v1/accounts"));
+    }
+}
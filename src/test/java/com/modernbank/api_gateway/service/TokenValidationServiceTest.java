@@ -0,0 +1,130 @@
+package com.modernbank.api_gateway.service;
+
+import com.modernbank.api_gateway.exception.RemoteServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenValidationServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** Authentication servisine yapılan doğrulama çağrıları */
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+
+    private volatile HttpStatus remoteStatus = HttpStatus.OK;
+
+    private TokenValidationService service;
+
+    @BeforeEach
+    void setUp() {
+        WebClient authServiceWebClient = WebClient.builder().baseUrl("http://authentication-service").exchangeFunction(request -> {
+            remoteCalls.incrementAndGet();
+            ClientResponse.Builder response = ClientResponse.create(remoteStatus)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            return Mono.just(remoteStatus == HttpStatus.OK
+                    ? response.body("{\"id\":\"42\",\"email\":\"user@modernbank.com\",\"authorities\":[\"ROLE_USER\"]}").build()
+                    : response.body("{\"error\":\"invalid token\"}").build());
+        }).build();
+
+        service = new TokenValidationService(
+                authServiceWebClient,
+                new TokenCache(true, 1000, Duration.ofMinutes(5), meterRegistry),
+                new LocalJwtVerifier("remote", new DefaultResourceLoader()),
+                new StaticListableBeanFactory().getBeanProvider(RedisTokenCache.class),
+                new NegativeTokenCache(1000, Duration.ofSeconds(30), meterRegistry),
+                meterRegistry);
+        ReflectionTestUtils.setField(service, "requireJwtFormat", true);
+        ReflectionTestUtils.setField(service, "maxTokenLength", 8192);
+        ReflectionTestUtils.setField(service, "clockSkew", Duration.ofSeconds(30));
+    }
+
+    @Test
+    void validate_shouldRejectMalformedTokensWithoutNetworkCall() {
+        for (String token : new String[]{"not-a-jwt", "a..c", "a.b.c.d", "a.b.c=", "a.b."}) {
+            assertUnauthorized(token);
+        }
+        assertUnauthorized("a.b." + "c".repeat(8192));
+
+        assertEquals(0, remoteCalls.get());
+        assertEquals(6, rejections("malformed"));
+    }
+
+    @Test
+    void validate_shouldRejectExpiredTokenOnlyAfterClockSkew() {
+        assertUnauthorized(token(Instant.now().minusSeconds(60)));
+        assertEquals(0, remoteCalls.get());
+        assertEquals(1, rejections("expired"));
+
+        // Süresi 10 saniye önce dolmuş ama clock skew içinde: tam doğrulamaya bırakılır
+        AuthenticatedUser user = service.validate(token(Instant.now().minusSeconds(10))).block();
+        assertEquals("42", user.getUserInfo().getId());
+        assertEquals(1, remoteCalls.get());
+        assertEquals(1, rejections("expired"));
+    }
+
+    @Test
+    void validate_shouldAnswerRecentlyRejectedTokenFromNegativeCache() {
+        remoteStatus = HttpStatus.UNAUTHORIZED;
+        String token = token(Instant.now().plusSeconds(600));
+
+        assertUnauthorized(token);
+        assertUnauthorized(token);
+        assertUnauthorized(token);
+
+        assertEquals(1, remoteCalls.get());
+        assertEquals(1, rejections("rejected"));
+        assertEquals(2, rejections("negative_cache"));
+    }
+
+    @Test
+    void validate_shouldNotNegativeCacheAuthServiceClientErrorsOtherThanRejection() {
+        remoteStatus = HttpStatus.TOO_MANY_REQUESTS;
+        String token = token(Instant.now().plusSeconds(600));
+
+        for (int i = 0; i < 2; i++) {
+            RemoteServiceException e = assertThrows(RemoteServiceException.class, () -> service.validate(token).block());
+            assertEquals(HttpStatus.BAD_GATEWAY, e.getStatus());
+        }
+        assertEquals(2, remoteCalls.get());
+
+        // Servis toparlanınca aynı token hemen kabul edilir
+        remoteStatus = HttpStatus.OK;
+        assertEquals("42", service.validate(token).block().getUserInfo().getId());
+    }
+
+    private void assertUnauthorized(String token) {
+        RemoteServiceException e = assertThrows(RemoteServiceException.class, () -> service.validate(token).block());
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getStatus());
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.get("auth.token.rejections").tag("reason", reason).counter().count();
+    }
+
+    private static String token(Instant expiresAt) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8))
+                + '.' + encoder.encodeToString(("{\"sub\":\"42\",\"exp\":" + expiresAt.getEpochSecond() + "}")
+                .getBytes(StandardCharsets.UTF_8))
+                + ".c2lnbmF0dXJl";
+    }
+}
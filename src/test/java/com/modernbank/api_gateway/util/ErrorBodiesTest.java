@@ -0,0 +1,59 @@
+package com.modernbank.api_gateway.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.modernbank.api_gateway.api.response.BaseResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class ErrorBodiesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void baseResponse_shouldMatchJacksonSerialization() throws Exception {
+        String message = "Kullanıcı doğrulaması başarısız: {\"error\":\"token\"}\n";
+        BaseResponse expected = BaseResponse.builder()
+                .status("FAILED")
+                .processCode("BAD_CREDENTIALS_PROVIDED")
+                .processMessage(message)
+                .build();
+
+        byte[] body = ErrorBodies.baseResponse("BAD_CREDENTIALS_PROVIDED", message);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(expected), body);
+        // Dinamik mesajlı gövdeler saklanmaz, her çağrıda yeniden kodlanır
+        assertNotSame(body, ErrorBodies.baseResponse("BAD_CREDENTIALS_PROVIDED", message));
+    }
+
+    @Test
+    void write_shouldSplicePathIntoTemplate() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/account/api/v1/\"accounts\""));
+
+        StepVerifier.create(ErrorBodies.write(exchange, ErrorBodies.UNAUTHORIZED))
+                .verifyComplete();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        StepVerifier.create(exchange.getResponse().getBodyAsString())
+                .assertNext(json -> {
+                    try {
+                        JsonNode node = objectMapper.readTree(json.getBytes(StandardCharsets.UTF_8));
+                        assertEquals(401, node.get("status").asInt());
+                        assertEquals("Unauthorized", node.get("error").asText());
+                        assertEquals(exchange.getRequest().getPath().value(), node.get("path").asText());
+                    } catch (Exception e) {
+                        throw new AssertionError(e);
+                    }
+                })
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,66 @@
+package com.modernbank.api_gateway.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InFlightRegistryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final InFlightRegistry<String> registry = new InFlightRegistry<>(meterRegistry, "test");
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void join_shouldMergeConcurrentLoadsAndRemoveEntryOnCompletion() {
+        Mono<String> first = registry.join("token", this::delayedLoad);
+        Mono<String> second = registry.join("token", this::delayedLoad);
+
+        List<String> results = Mono.zip(first, second, List::of).block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("value-1", "value-1"), results);
+        assertEquals(1, calls.get());
+        assertEquals(1, meterRegistry.get("test.merged").counter().count());
+        assertEquals(0, inFlight());
+
+        assertEquals("value-2", registry.join("token", this::delayedLoad).block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void join_shouldRemoveEntryOnFailure() {
+        Mono<String> failing = registry.join("token", () -> Mono.delay(Duration.ofMillis(50))
+                .then(Mono.error(new IllegalStateException("upstream down"))));
+
+        assertThrows(IllegalStateException.class, () -> failing.block(Duration.ofSeconds(5)));
+        assertEquals(0, inFlight());
+
+        assertEquals("value-1", registry.join("token", this::delayedLoad).block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void join_shouldStartNewLoadWhenJoinedWhileHandlingResult() {
+        // Sonucu işleyen bir çağıran tekrar join ederse biten işlemin sonucunu değil yeni bir işlemi almalı
+        String reloaded = registry.join("token", this::delayedLoad)
+                .flatMap(value -> registry.join("token", this::delayedLoad))
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("value-2", reloaded);
+        assertEquals(2, calls.get());
+    }
+
+    private Mono<String> delayedLoad() {
+        return Mono.delay(Duration.ofMillis(50)).map(tick -> "value-" + calls.incrementAndGet());
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("test.in-flight").gauge().value();
+    }
+}